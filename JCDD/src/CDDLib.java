@@ -86,7 +86,12 @@ public class CDDLib {
 
 
     public static native int[] extrapolateMaxBoundsNoClose(int[] dbm, int dim, int[] max);
+    public static native long extrapolateMaxBounds(long cddPointer, int[] maxBounds);
+    public static native long extrapolateLUBounds(long cddPointer, int[] lowerBounds, int[] upperBounds);
 
     public static native int[] getDbmFromExtractionResult(long extractionResultPointer);
     public static native boolean cddEquiv(long lCdd, long rCdd);
+    public static native boolean isSubset(long lCdd, long rCdd);
+    public static native int indexOfSuperset(long cddPointer, long[] cddPointers);
+    public static native Object[] exportZones(long cddPointer);
 }
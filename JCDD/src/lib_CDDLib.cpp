@@ -3,6 +3,7 @@
 #include <cdd/cdd.h>
 #include <cdd/kernel.h>
 #include <iostream>
+#include <vector>
 #include <helper_functions.h>
 
 JNIEXPORT jint JNICALL Java_lib_DBMLib_boundbool2raw(JNIEnv *env, jclass cls, jint bound, jboolean strict) {
@@ -679,6 +680,7 @@ jboolean JNICALL Java_lib_CDDLib_deleteBDDArrays
     bdd_arrays* bdd_arrays_object = (bdd_arrays*)bdd_arrays_pointer;
     delete[] bdd_arrays_object->vars;
     delete[] bdd_arrays_object->values;
+    delete bdd_arrays_object;
 
     return 1;
 }
@@ -693,5 +695,154 @@ jboolean JNICALL Java_lib_CDDLib_deleteCDDExtractionResult
   (JNIEnv *env, jclass, jlong extraction_result_pointer){
     extraction_result* result_object = (extraction_result*)extraction_result_pointer;
     delete[] result_object->dbm;
+    // Also releases the CDD and BDD parts, which must have been copied by the caller if they are still needed
+    delete result_object;
     return 1;
 }
+
+/*
+ * Extrapolates every zone of the CDD with the given function and returns the disjunction of the extrapolated zones.
+ * The zones are extracted, closed, and extrapolated in place, such that no DBM is copied into Java.
+ */
+template <typename Extrapolation>
+static cdd* extrapolate_zones(const cdd& cdd_object, cindex_t dim, Extrapolation extrapolation) {
+    cdd result = cdd_false();
+    cdd rest = cdd_reduce(cdd_remove_negative(cdd_object));
+
+    while (!cdd_isterminal(rest.handle())) {
+        extraction_result extraction = cdd_extract_bdd_and_dbm(rest);
+        rest = cdd_reduce(cdd_remove_negative(extraction.CDD_part));
+
+        dbm_close(extraction.dbm, dim);
+        extrapolation(extraction.dbm);
+        result |= extraction.BDD_part & cdd(extraction.dbm, dim);
+        delete[] extraction.dbm;
+    }
+
+    return new cdd(result);
+}
+
+/*
+ * Class:     lib_CDDLib
+ * Method:    extrapolateMaxBounds
+ * Signature: (J[I)J
+ */
+JNIEXPORT jlong JNICALL Java_lib_CDDLib_extrapolateMaxBounds
+  (JNIEnv *env, jclass, jlong cdd_pointer, jintArray max_bounds){
+    cdd* cdd_object = (cdd*)cdd_pointer;
+
+    jsize dim = env->GetArrayLength(max_bounds);
+    auto converted_max_bounds = helper_functions::jintToCIntArray(env, max_bounds, dim);
+
+    cdd* cdd_result = extrapolate_zones(*cdd_object, dim, [&](raw_t* dbm) {
+        dbm_extrapolateMaxBounds(dbm, dim, converted_max_bounds);
+    });
+    delete[] converted_max_bounds;
+    return (jlong)cdd_result;
+}
+
+/*
+ * Class:     lib_CDDLib
+ * Method:    extrapolateLUBounds
+ * Signature: (J[I[I)J
+ */
+JNIEXPORT jlong JNICALL Java_lib_CDDLib_extrapolateLUBounds
+  (JNIEnv *env, jclass, jlong cdd_pointer, jintArray lower_bounds, jintArray upper_bounds){
+    cdd* cdd_object = (cdd*)cdd_pointer;
+
+    jsize dim = env->GetArrayLength(lower_bounds);
+    auto converted_lower_bounds = helper_functions::jintToCIntArray(env, lower_bounds, dim);
+    auto converted_upper_bounds = helper_functions::jintToCIntArray(env, upper_bounds, dim);
+
+    cdd* cdd_result = extrapolate_zones(*cdd_object, dim, [&](raw_t* dbm) {
+        dbm_extrapolateLUBounds(dbm, dim, converted_lower_bounds, converted_upper_bounds);
+    });
+    delete[] converted_lower_bounds;
+    delete[] converted_upper_bounds;
+    return (jlong)cdd_result;
+}
+
+/*
+ * Returns whether the left CDD is included in the right CDD,
+ * which is the case if no part of the left CDD is outside of the right CDD.
+ * Parts where a clock is negative are removed from the difference, as they never contain any valuation.
+ */
+static bool cdd_subset(const cdd& left, const cdd& right) {
+    cdd difference = cdd_reduce(cdd_remove_negative(left & !right));
+    return cdd_equiv(difference, cdd_false());
+}
+
+/*
+ * Class:     lib_CDDLib
+ * Method:    isSubset
+ * Signature: (JJ)Z
+ */
+JNIEXPORT jboolean JNICALL Java_lib_CDDLib_isSubset
+  (JNIEnv *, jclass, jlong l_cdd, jlong r_cdd){
+    cdd* l_cdd_object = (cdd*)l_cdd;
+    cdd* r_cdd_object = (cdd*)r_cdd;
+
+    return cdd_subset(*l_cdd_object, *r_cdd_object);
+}
+
+/*
+ * Class:     lib_CDDLib
+ * Method:    indexOfSuperset
+ * Signature: (J[J)I
+ */
+JNIEXPORT jint JNICALL Java_lib_CDDLib_indexOfSuperset
+  (JNIEnv *env, jclass, jlong cdd_pointer, jlongArray cdd_pointers){
+    cdd* cdd_object = (cdd*)cdd_pointer;
+
+    jsize size = env->GetArrayLength(cdd_pointers);
+    jlong* pointers = env->GetLongArrayElements(cdd_pointers, nullptr);
+
+    jint result = -1;
+    for (jsize i = 0; i < size; i++) {
+        if (cdd_subset(*cdd_object, *(cdd*)pointers[i])) {
+            result = i;
+            break;
+        }
+    }
+
+    // The pointers are only read, so they do not have to be copied back
+    env->ReleaseLongArrayElements(cdd_pointers, pointers, JNI_ABORT);
+    return result;
+}
+
+/*
+ * Class:     lib_CDDLib
+ * Method:    exportZones
+ * Signature: (J)[Ljava/lang/Object;
+ *
+ * Extracts every zone of the CDD and returns them as an array of two arrays: the DBMs of the zones
+ * one after another in a flat int array, and the pointers to the BDD parts of the zones in a long array.
+ * The BDD parts are new CDDs owned by the caller.
+ */
+JNIEXPORT jobjectArray JNICALL Java_lib_CDDLib_exportZones
+  (JNIEnv *env, jclass, jlong cdd_pointer){
+    cdd* cdd_object = (cdd*)cdd_pointer;
+    int dbm_size = cdd_clocknum * cdd_clocknum;
+
+    std::vector<raw_t> dbms;
+    std::vector<jlong> bdd_parts;
+    cdd rest = cdd_reduce(cdd_remove_negative(*cdd_object));
+    while (!cdd_isterminal(rest.handle())) {
+        extraction_result extraction = cdd_extract_bdd_and_dbm(rest);
+        rest = cdd_reduce(cdd_remove_negative(extraction.CDD_part));
+
+        dbms.insert(dbms.end(), extraction.dbm, extraction.dbm + dbm_size);
+        bdd_parts.push_back((jlong)new cdd(extraction.BDD_part));
+        delete[] extraction.dbm;
+    }
+
+    jintArray dbms_array = env->NewIntArray(dbms.size());
+    env->SetIntArrayRegion(dbms_array, 0, dbms.size(), (const jint*)dbms.data());
+    jlongArray bdd_parts_array = env->NewLongArray(bdd_parts.size());
+    env->SetLongArrayRegion(bdd_parts_array, 0, bdd_parts.size(), bdd_parts.data());
+
+    jobjectArray result = env->NewObjectArray(2, env->FindClass("java/lang/Object"), nullptr);
+    env->SetObjectArrayElement(result, 0, dbms_array);
+    env->SetObjectArrayElement(result, 1, bdd_parts_array);
+    return result;
+}
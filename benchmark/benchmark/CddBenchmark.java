@@ -0,0 +1,71 @@
+package benchmark;
+
+import models.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Microbenchmarks of the raw {@link CDD} operations used in the inner loops of the explorations.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CddBenchmark {
+    private static final int CLOCKS = 4;
+
+    private List<Clock> clocks;
+    private HashMap<Clock, Integer> maxBounds;
+    private CDD small, large, disjunction;
+    private Location location;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        clocks = new ArrayList<>();
+        maxBounds = new HashMap<>();
+        for (int i = 0; i < CLOCKS; i++) {
+            Clock clock = new Clock("x" + i, "benchmark");
+            clocks.add(clock);
+            maxBounds.put(clock, 10);
+        }
+        CDD.init(CDD.maxSize, CDD.cs, CDD.stackSize, clocks, new ArrayList<>());
+
+        small = CDD.cddTrue();
+        large = CDD.cddTrue();
+        disjunction = CDD.cddFalse();
+        for (int i = 1; i <= CLOCKS; i++) {
+            small = small.conjunction(CDD.createInterval(i, 0, 2, true, 5, true));
+            large = large.conjunction(CDD.createInterval(i, 0, 0, true, 20, true));
+            disjunction = disjunction.disjunction(CDD.createInterval(i, 0, 3 * i, true, 3 * i + 50, false));
+        }
+        location = Location.create("benchmark", new TrueGuard(), false, false, false, false);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        CDD.done();
+    }
+
+    @Benchmark
+    public CDD conjunction() {
+        return small.conjunction(disjunction);
+    }
+
+    @Benchmark
+    public boolean subset() {
+        return small.isSubset(large);
+    }
+
+    @Benchmark
+    public CDD extrapolation() {
+        logic.State state = new logic.State(location, disjunction.hardCopy().delay());
+        state.extrapolateMaxBounds(maxBounds, clocks);
+        return state.getInvariant();
+    }
+}
@@ -0,0 +1,329 @@
+package benchmark;
+
+import logic.JsonAutomatonEncoder;
+import models.*;
+import org.apache.commons.cli.*;
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+import parser.XMLFileWriter;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Generates synthetic models and matching queries to measure how the engine scales with the size of the models.
+ * <p>
+ * The components are named {@code C0}, {@code C1}, ... and each of them has a ring of locations {@code L0}, {@code L1}, ...
+ * connected by outputs. Every edge resets the first clock, and every location has an invariant on the first clock,
+ * which keeps the generated components consistent. The remaining edges are inputs and outputs between random locations,
+ * guarded by random clock and boolean constraints. The channel overlap controls the fraction of inputs which are
+ * synchronised with the outputs of the next component, and the nondeterminism controls the fraction of edges which are
+ * duplicated towards another location with the same channel.
+ * </p>
+ * <p>
+ * The generated folder can be loaded by both the {@link parser.JSONParser} and the {@link parser.XMLParser}:
+ * </p>
+ * <pre>
+ * folder/Components/*.json
+ * folder/GlobalDeclarations.json
+ * folder/SystemDeclarations.json
+ * folder/Queries.json
+ * folder/Model.xml
+ * folder/Model.q
+ * </pre>
+ * <p>
+ * The {@link parser.JSONParser} does not read boolean declarations of the components,
+ * for this reason models with boolean variables must be loaded from {@code Model.xml}.
+ * </p>
+ */
+public final class ModelGenerator {
+    private final int components;
+    private final int locations;
+    private final int clocks;
+    private final int bools;
+    private final double overlap;
+    private final int maxConstant;
+    private final double nondeterminism;
+    private final Random random;
+
+    public ModelGenerator(int components, int locations, int clocks, int bools, double overlap, int maxConstant, double nondeterminism, long seed) {
+        if (components < 1 || locations < 1 || clocks < 1 || bools < 0) {
+            throw new IllegalArgumentException("A model requires at least one component with one location and one clock");
+        }
+        if (overlap < 0 || overlap > 1 || nondeterminism < 0 || nondeterminism > 1) {
+            throw new IllegalArgumentException("The channel overlap and nondeterminism must be between 0 and 1");
+        }
+        if (maxConstant < 1) {
+            throw new IllegalArgumentException("The maximum guard constant must be positive");
+        }
+
+        this.components = components;
+        this.locations = locations;
+        this.clocks = clocks;
+        this.bools = bools;
+        this.overlap = overlap;
+        this.maxConstant = maxConstant;
+        this.nondeterminism = nondeterminism;
+        this.random = new Random(seed);
+    }
+
+    /**
+     * Generates the components. The components are not input-enabled,
+     * as that is done by the parsers when the generated files are loaded.
+     */
+    public Automaton[] generate() {
+        // The outputs of every component are disjoint, such that all components can be composed
+        int channels = Math.max(1, locations / 2);
+        List<List<Channel>> outputs = new ArrayList<>();
+        for (int i = 0; i < components; i++) {
+            List<Channel> componentOutputs = new ArrayList<>();
+            for (int j = 0; j < channels; j++) {
+                componentOutputs.add(new Channel("o" + i + "_" + j));
+            }
+            outputs.add(componentOutputs);
+        }
+
+        Automaton[] automata = new Automaton[components];
+        for (int i = 0; i < components; i++) {
+            List<Channel> inputs = new ArrayList<>();
+            for (int j = 0; j < channels; j++) {
+                if (components > 1 && random.nextDouble() < overlap) {
+                    inputs.add(outputs.get((i + 1) % components).get(j));
+                } else {
+                    inputs.add(new Channel("i" + i + "_" + j));
+                }
+            }
+            automata[i] = generateComponent("C" + i, inputs, outputs.get(i));
+        }
+        return automata;
+    }
+
+    private Automaton generateComponent(String name, List<Channel> inputs, List<Channel> outputs) {
+        List<Clock> componentClocks = new ArrayList<>();
+        for (int i = 0; i < clocks; i++) {
+            componentClocks.add(new Clock("x" + i, name));
+        }
+        List<BoolVar> componentBools = new ArrayList<>();
+        for (int i = 0; i < bools; i++) {
+            componentBools.add(new BoolVar("b" + i, name, false));
+        }
+        Clock main = componentClocks.get(0);
+
+        List<Location> componentLocations = new ArrayList<>();
+        for (int i = 0; i < locations; i++) {
+            // The locations are laid out on a circle, such that they can be inspected in the GUI
+            double angle = 2 * Math.PI * i / locations;
+            int x = (int) (Math.cos(angle) * 50 * locations);
+            int y = (int) (Math.sin(angle) * 50 * locations);
+            Guard invariant = new ClockGuard(main, maxConstant, Relation.LESS_EQUAL);
+            componentLocations.add(Location.create("L" + i, invariant, i == 0, false, false, false, x, y));
+        }
+
+        List<Edge> edges = new ArrayList<>();
+        for (int i = 0; i < locations; i++) {
+            Location source = componentLocations.get(i);
+
+            // The ring edge can always be taken before the invariant of the source is violated
+            Location next = componentLocations.get((i + 1) % locations);
+            Guard ringGuard = new ClockGuard(main, random.nextInt(maxConstant + 1), Relation.GREATER_EQUAL);
+            addEdge(edges, source, next, outputs.get(i % outputs.size()), false, ringGuard, componentClocks, componentBools, componentLocations);
+
+            Location target = componentLocations.get(random.nextInt(locations));
+            addEdge(edges, source, target, inputs.get(random.nextInt(inputs.size())), true, randomGuard(componentClocks, componentBools), componentClocks, componentBools, componentLocations);
+
+            if (random.nextBoolean()) {
+                target = componentLocations.get(random.nextInt(locations));
+                addEdge(edges, source, target, outputs.get(random.nextInt(outputs.size())), false, randomGuard(componentClocks, componentBools), componentClocks, componentBools, componentLocations);
+            }
+        }
+
+        return new Automaton(name, componentLocations, edges, componentClocks, componentBools, false);
+    }
+
+    private void addEdge(List<Edge> edges, Location source, Location target, Channel channel, boolean isInput, Guard guard, List<Clock> componentClocks, List<BoolVar> componentBools, List<Location> componentLocations) {
+        edges.add(new Edge(source, target, channel, isInput, guard, randomUpdates(componentClocks, componentBools)));
+
+        if (random.nextDouble() < nondeterminism) {
+            Location other = componentLocations.get(random.nextInt(componentLocations.size()));
+            edges.add(new Edge(source, other, channel, isInput, guard, randomUpdates(componentClocks, componentBools)));
+        }
+    }
+
+    private Guard randomGuard(List<Clock> componentClocks, List<BoolVar> componentBools) {
+        List<Guard> guards = new ArrayList<>();
+        Clock clock = componentClocks.get(random.nextInt(componentClocks.size()));
+        Relation relation = random.nextBoolean() ? Relation.GREATER_EQUAL : Relation.LESS_EQUAL;
+        guards.add(new ClockGuard(clock, random.nextInt(maxConstant + 1), relation));
+
+        if (!componentBools.isEmpty() && random.nextBoolean()) {
+            BoolVar bool = componentBools.get(random.nextInt(componentBools.size()));
+            guards.add(new BoolGuard(bool, Relation.EQUAL, random.nextBoolean()));
+        }
+
+        return guards.size() == 1 ? guards.get(0) : new AndGuard(guards);
+    }
+
+    private List<Update> randomUpdates(List<Clock> componentClocks, List<BoolVar> componentBools) {
+        List<Update> updates = new ArrayList<>();
+        // The first clock is always reset, such that the invariants of the targets can be satisfied
+        updates.add(new ClockUpdate(componentClocks.get(0), 0));
+        for (int i = 1; i < componentClocks.size(); i++) {
+            if (random.nextBoolean()) {
+                updates.add(new ClockUpdate(componentClocks.get(i), 0));
+            }
+        }
+        if (!componentBools.isEmpty() && random.nextBoolean()) {
+            BoolVar bool = componentBools.get(random.nextInt(componentBools.size()));
+            updates.add(new BoolUpdate(bool, random.nextBoolean()));
+        }
+        return updates;
+    }
+
+    /**
+     * Returns the queries sweeping refinement, composition, conjunction and quotient over the generated components.
+     * The compositions grow one component at a time, such that the results show how the engine scales
+     * with the amount of components.
+     */
+    public List<String> queries() {
+        List<String> queries = new ArrayList<>();
+        for (int i = 0; i < components; i++) {
+            queries.add("consistency: C" + i);
+            queries.add("determinism: C" + i);
+            queries.add("refinement: C" + i + " <= C" + i);
+            queries.add("refinement: (C" + i + " && C" + i + ") <= C" + i);
+        }
+
+        for (int i = 2; i <= components; i++) {
+            String composition = composition(i);
+            queries.add("consistency: " + composition);
+            queries.add("refinement: " + composition + " <= " + composition);
+        }
+
+        // By the property of the quotient, C1 refines (C0 || C1) \\ C0 iff C0 || C1 refines itself
+        for (int i = 1; i < components; i++) {
+            String quotient = "(" + composition(i + 1) + ") \\\\ C0";
+            String rest = i == 1 ? "C1" : "(" + composition(i + 1).replaceFirst("C0 \\|\\| ", "") + ")";
+            queries.add("refinement: " + rest + " <= " + quotient);
+            queries.add("get-component: " + quotient + " save-as Q" + i);
+        }
+
+        return queries;
+    }
+
+    private static String composition(int size) {
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            names.add("C" + i);
+        }
+        return String.join(" || ", names);
+    }
+
+    /**
+     * Writes the generated components and queries to the folder.
+     *
+     * @param folder The folder to write the model to, it is created if it does not exist.
+     */
+    public void write(String folder) {
+        Automaton[] automata = generate();
+        List<String> queries = queries();
+
+        File componentsFolder = new File(folder, "Components");
+        if (!componentsFolder.exists() && !componentsFolder.mkdirs()) {
+            throw new RuntimeException("Could not create the folder " + componentsFolder);
+        }
+
+        Set<Channel> channels = new LinkedHashSet<>();
+        StringBuilder systemDeclarations = new StringBuilder("system ");
+        systemDeclarations.append(Arrays.stream(automata).map(Automaton::getName).collect(Collectors.joining(", ")));
+        systemDeclarations.append(";\n");
+        for (Automaton automaton : automata) {
+            writeFile(new File(componentsFolder, automaton.getName() + ".json"), JsonAutomatonEncoder.getAutomatonAsJson(automaton));
+
+            channels.addAll(automaton.getInputAct());
+            channels.addAll(automaton.getOutputAct());
+            List<String> actions = new ArrayList<>();
+            automaton.getInputAct().forEach(channel -> actions.add(channel.getName() + "?"));
+            automaton.getOutputAct().forEach(channel -> actions.add(channel.getName() + "!"));
+            systemDeclarations.append("\nIO ").append(automaton.getName())
+                    .append(" { ").append(String.join(", ", actions)).append(" }");
+        }
+
+        JSONObject globalJson = new JSONObject();
+        globalJson.put("name", "Global Declarations");
+        globalJson.put("declarations", "broadcast chan " +
+                channels.stream().map(Channel::getName).collect(Collectors.joining(", ")) + ";");
+        writeFile(new File(folder, "GlobalDeclarations.json"), globalJson.toJSONString());
+
+        JSONObject systemJson = new JSONObject();
+        systemJson.put("name", "System Declarations");
+        systemJson.put("declarations", systemDeclarations.toString());
+        writeFile(new File(folder, "SystemDeclarations.json"), systemJson.toJSONString());
+
+        JSONArray queriesJson = new JSONArray();
+        StringBuilder queriesFile = new StringBuilder("//Generated by the j-Ecdar model generator\n");
+        for (String query : queries) {
+            JSONObject queryJson = new JSONObject();
+            queryJson.put("query", query);
+            queryJson.put("comment", "");
+            queryJson.put("isPeriodic", false);
+            queriesJson.add(queryJson);
+
+            queriesFile.append("\n/*\n\n*/\n").append(query).append("\n");
+        }
+        writeFile(new File(folder, "Queries.json"), queriesJson.toJSONString());
+        writeFile(new File(folder, "Model.q"), queriesFile.toString());
+
+        XMLFileWriter.toXML(new File(folder, "Model.xml").getPath(), automata);
+    }
+
+    private static void writeFile(File file, String content) {
+        try (FileWriter writer = new FileWriter(file)) {
+            writer.write(content);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    public static void main(String[] args) {
+        Options options = new Options();
+        options.addOption(Option.builder("o").longOpt("output").argName("folder").hasArg().required()
+                .desc("Folder to write the model to").build());
+        options.addOption(Option.builder("c").longOpt("components").argName("amount").hasArg()
+                .desc("Amount of components (default 3)").build());
+        options.addOption(Option.builder("l").longOpt("locations").argName("amount").hasArg()
+                .desc("Amount of locations per component (default 10)").build());
+        options.addOption(Option.builder("x").longOpt("clocks").argName("amount").hasArg()
+                .desc("Amount of clocks per component (default 2)").build());
+        options.addOption(Option.builder("b").longOpt("bools").argName("amount").hasArg()
+                .desc("Amount of boolean variables per component (default 0)").build());
+        options.addOption(Option.builder("v").longOpt("overlap").argName("fraction").hasArg()
+                .desc("Fraction of inputs synchronised with the outputs of another component (default 0.5)").build());
+        options.addOption(Option.builder("m").longOpt("max-constant").argName("constant").hasArg()
+                .desc("Largest constant used in guards and invariants (default 10)").build());
+        options.addOption(Option.builder("n").longOpt("nondeterminism").argName("fraction").hasArg()
+                .desc("Fraction of edges duplicated towards another location (default 0)").build());
+        options.addOption(Option.builder("s").longOpt("seed").argName("seed").hasArg()
+                .desc("Seed of the random generator (default 0)").build());
+
+        try {
+            CommandLine cmd = new DefaultParser().parse(options, args);
+            ModelGenerator generator = new ModelGenerator(
+                    Integer.parseInt(cmd.getOptionValue("components", "3")),
+                    Integer.parseInt(cmd.getOptionValue("locations", "10")),
+                    Integer.parseInt(cmd.getOptionValue("clocks", "2")),
+                    Integer.parseInt(cmd.getOptionValue("bools", "0")),
+                    Double.parseDouble(cmd.getOptionValue("overlap", "0.5")),
+                    Integer.parseInt(cmd.getOptionValue("max-constant", "10")),
+                    Double.parseDouble(cmd.getOptionValue("nondeterminism", "0")),
+                    Long.parseLong(cmd.getOptionValue("seed", "0"))
+            );
+            generator.write(cmd.getOptionValue("output"));
+        } catch (ParseException e) {
+            System.err.println(e.getMessage());
+            new HelpFormatter().printHelp("-o path/to/folder [OPTIONS]", options);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package benchmark;
+
+import models.Automaton;
+import parser.JSONParser;
+
+import java.io.FileNotFoundException;
+
+/**
+ * Loads the sample models used by the benchmarks.
+ * The benchmarks must be run from the project directory, as the samples are loaded with relative paths.
+ */
+final class Models {
+    static final String BIG_REFINEMENT = "./samples/json/BigRefinement";
+    static final String ECDAR_UNIVERSITY = "./samples/json/EcdarUniversity";
+    static final String CAR_ALARM = "./samples/json/CarAlarm/Model";
+
+    private Models() { }
+
+    static Automaton[] parseJson(String folder) {
+        try {
+            return JSONParser.parse(folder, true);
+        } catch (FileNotFoundException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    static Automaton find(Automaton[] automata, String name) {
+        for (Automaton automaton : automata) {
+            if (automaton.getName().equalsIgnoreCase(name)) {
+                return automaton;
+            }
+        }
+        throw new IllegalArgumentException("Automaton does not exist " + name);
+    }
+}
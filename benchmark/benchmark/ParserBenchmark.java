@@ -0,0 +1,40 @@
+package benchmark;
+
+import models.Automaton;
+import org.openjdk.jmh.annotations.*;
+import parser.XMLParser;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the time it takes to load the sample models.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParserBenchmark {
+    @Param({"BigRefinement", "EcdarUniversity", "CarAlarm"})
+    public String model;
+
+    @Benchmark
+    public Automaton[] json() {
+        switch (model) {
+            case "BigRefinement":
+                return Models.parseJson(Models.BIG_REFINEMENT);
+            case "EcdarUniversity":
+                return Models.parseJson(Models.ECDAR_UNIVERSITY);
+            case "CarAlarm":
+                return Models.parseJson(Models.CAR_ALARM);
+            default:
+                throw new IllegalArgumentException("Unknown model " + model);
+        }
+    }
+
+    @Benchmark
+    public Automaton[] xml() {
+        return XMLParser.parse("./samples/xml/university.xml", true);
+    }
+}
@@ -0,0 +1,41 @@
+package benchmark;
+
+import logic.Bisimilarity;
+import logic.Pruning;
+import logic.SimpleTransitionSystem;
+import models.Automaton;
+import org.openjdk.jmh.annotations.*;
+import parser.XMLParser;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the adversarial pruning and the bisimulation minimisation of a single automaton.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PruningBenchmark {
+    private Automaton inconsistent;
+    private Automaton criticalSection;
+
+    @Setup(Level.Invocation)
+    public void setUp() {
+        // Pruning and minimisation alter the locations of the automaton, so it is parsed for every invocation
+        inconsistent = XMLParser.parse("./samples/xml/quotient/QuotientTestOutputs.xml", false)[0];
+        criticalSection = XMLParser.parse("./samples/xml/quotient/example_critical_sections_final_versions_pruned.xml", false)[9];
+    }
+
+    @Benchmark
+    public SimpleTransitionSystem adversarialPruning() {
+        return Pruning.adversarialPruning(new SimpleTransitionSystem(inconsistent));
+    }
+
+    @Benchmark
+    public Automaton bisimilarity() {
+        return Bisimilarity.checkBisimilarity(criticalSection);
+    }
+}
@@ -0,0 +1,87 @@
+package benchmark;
+
+import logic.Composition;
+import logic.Extrapolation;
+import logic.Refinement;
+import logic.SimpleTransitionSystem;
+import logic.TransitionSystem;
+import models.Automaton;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks a complete refinement check, including the initialisation and teardown of the CDD kernel.
+ * The check is measured both with the consistency of the systems checked upfront and lazily,
+ * and with the states extrapolated by the max bounds and by the lower and upper bounds of their locations.
+ * The number of explored and subsumed state pairs, and of pruned move combinations, are reported as secondary results.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RefinementBenchmark {
+    @Param({"BigRefinement", "EcdarUniversity", "CarAlarm"})
+    public String model;
+
+    @Param({"false", "true"})
+    public boolean lazyPreconditions;
+
+    @Param({"MAX_BOUNDS", "LOCAL_MAX_BOUNDS"})
+    public Extrapolation extrapolation;
+
+    private TransitionSystem left, right;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Statistics {
+        public long expanded;
+        public long subsumed;
+        public long prunedMoves;
+    }
+
+    @Setup(Level.Invocation)
+    public void setUp() {
+        // The systems are created for every invocation as the transition systems cache their state
+        switch (model) {
+            case "BigRefinement": {
+                Automaton[] automata = Models.parseJson(Models.BIG_REFINEMENT);
+                Automaton comp1 = Models.find(automata, "Comp1");
+                left = new SimpleTransitionSystem(comp1);
+                right = new SimpleTransitionSystem(new Automaton(comp1));
+                break;
+            }
+            case "EcdarUniversity": {
+                Automaton[] automata = Models.parseJson(Models.ECDAR_UNIVERSITY);
+                left = new Composition(new TransitionSystem[]{
+                        new SimpleTransitionSystem(Models.find(automata, "Administration")),
+                        new SimpleTransitionSystem(Models.find(automata, "Machine")),
+                        new SimpleTransitionSystem(Models.find(automata, "Researcher"))
+                });
+                right = new SimpleTransitionSystem(Models.find(automata, "Spec"));
+                break;
+            }
+            case "CarAlarm": {
+                Automaton[] automata = Models.parseJson(Models.CAR_ALARM);
+                Automaton alarm = Models.find(automata, "Alarm");
+                left = new SimpleTransitionSystem(alarm);
+                right = new SimpleTransitionSystem(new Automaton(alarm));
+                break;
+            }
+            default:
+                throw new IllegalArgumentException("Unknown model " + model);
+        }
+    }
+
+    @Benchmark
+    public boolean check(Statistics statistics) {
+        Refinement refinement = new Refinement(left, right, lazyPreconditions, extrapolation);
+        boolean refines = refinement.check();
+        statistics.expanded += refinement.getExpandedStatePairs();
+        statistics.subsumed += refinement.getSubsumedStatePairs();
+        statistics.prunedMoves += left.getPrunedMoves() + right.getPrunedMoves();
+        return refines;
+    }
+}
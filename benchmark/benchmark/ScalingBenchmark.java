@@ -0,0 +1,71 @@
+package benchmark;
+
+import logic.Composition;
+import logic.Quotient;
+import logic.Refinement;
+import logic.SimpleTransitionSystem;
+import logic.TransitionSystem;
+import models.Automaton;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks refinement, composition and quotient on models of growing size created by the {@link ModelGenerator}.
+ * The models are written to a temporary folder and loaded with the {@link parser.JSONParser},
+ * such that they are input-enabled exactly like the models given by the GUI.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class ScalingBenchmark {
+    @Param({"2", "4"})
+    public int components;
+
+    @Param({"10", "100", "1000"})
+    public int locations;
+
+    @Param({"2"})
+    public int clocks;
+
+    private Automaton[] automata;
+
+    @Setup(Level.Trial)
+    public void generate() throws IOException {
+        String folder = Files.createTempDirectory("jecdar-model").toString();
+        new ModelGenerator(components, locations, clocks, 0, 0.5, 10, 0.0, 0).write(folder);
+        automata = Models.parseJson(folder);
+    }
+
+    private TransitionSystem[] systems() {
+        // The systems are created for every invocation as the transition systems cache their state
+        TransitionSystem[] systems = new TransitionSystem[components];
+        for (int i = 0; i < components; i++) {
+            systems[i] = new SimpleTransitionSystem(Models.find(automata, "C" + i));
+        }
+        return systems;
+    }
+
+    @Benchmark
+    public boolean selfRefinement() {
+        Automaton component = Models.find(automata, "C0");
+        return new Refinement(new SimpleTransitionSystem(component), new SimpleTransitionSystem(new Automaton(component))).check();
+    }
+
+    @Benchmark
+    public boolean compositionRefinement() {
+        return new Refinement(new Composition(systems()), new Composition(systems())).check();
+    }
+
+    @Benchmark
+    public boolean quotientRefinement() {
+        TransitionSystem[] systems = systems();
+        TransitionSystem quotient = new Quotient(new Composition(systems[0], systems[1]), systems[0]);
+        return new Refinement(systems[1], quotient).check();
+    }
+}
@@ -0,0 +1,60 @@
+package benchmark;
+
+import logic.Composition;
+import logic.Conjunction;
+import logic.Quotient;
+import logic.SimpleTransitionSystem;
+import logic.TransitionSystem;
+import models.Automaton;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the materialisation of the composition, conjunction and quotient into an {@link Automaton}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SystemOperationBenchmark {
+    private Automaton administration, machine, researcher, halfAdm1, halfAdm2, spec;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Automaton[] automata = Models.parseJson(Models.ECDAR_UNIVERSITY);
+        administration = Models.find(automata, "Administration");
+        machine = Models.find(automata, "Machine");
+        researcher = Models.find(automata, "Researcher");
+        halfAdm1 = Models.find(automata, "HalfAdm1");
+        halfAdm2 = Models.find(automata, "HalfAdm2");
+        spec = Models.find(automata, "Spec");
+    }
+
+    @Benchmark
+    public Automaton composition() {
+        return new Composition(new TransitionSystem[]{
+                new SimpleTransitionSystem(administration),
+                new SimpleTransitionSystem(machine),
+                new SimpleTransitionSystem(researcher)
+        }).getAutomaton();
+    }
+
+    @Benchmark
+    public Automaton conjunction() {
+        return new Conjunction(new TransitionSystem[]{
+                new SimpleTransitionSystem(halfAdm1),
+                new SimpleTransitionSystem(halfAdm2)
+        }).getAutomaton();
+    }
+
+    @Benchmark
+    public Automaton quotient() {
+        return new Quotient(
+                new SimpleTransitionSystem(spec),
+                new SimpleTransitionSystem(administration)
+        ).getAutomaton();
+    }
+}
@@ -17,7 +17,7 @@ query       : QUERY_TYPE ':' saveSystem
             | refinement
             ;
 
-refinement  : 'refinement:' expression '<=' expression
+refinement  : 'refinement:' expression '<=' expression EXTRAPOLATION? LAZY_PRECONDITIONS?
             ;
 
 saveSystem  : expression
@@ -49,6 +49,10 @@ system      : VARIABLE
 
 QUERY_TYPE      : 'get-component' | 'bisim-minim' | 'consistency' | 'implementation' | 'determinism' | 'prune' ;
 
+EXTRAPOLATION   : 'max-bounds' | 'local-max-bounds' ;
+
+LAZY_PRECONDITIONS  : 'lazy-preconditions' ;
+
 CONJUNCTION          : '&&' ;
 COMPOSITION          : '||' ;
 QUOTIENT             : '\\\\' ;
\ No newline at end of file
@@ -6,6 +6,7 @@ import io.grpc.netty.shaded.io.grpc.netty.NettyServerBuilder;
 import java.io.IOException;
 import java.net.InetSocketAddress;
 import java.net.SocketAddress;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 
 public class GrpcServer {
@@ -19,6 +20,18 @@ public class GrpcServer {
                 .build();
     }
 
+    /**
+     * Creates a server handling at most the provided amount of requests concurrently.
+     * Each request is handled on a worker thread and thereby in the CDD context of that thread.
+     */
+    public GrpcServer(String address, int workers) {
+        SocketAddress socketAddress = getSocketAddressFromString(address);
+        this.server = NettyServerBuilder.forAddress(socketAddress)
+                .addService(new EcdarService())
+                .executor(Executors.newFixedThreadPool(workers))
+                .build();
+    }
+
     private SocketAddress getSocketAddressFromString(String address) {
         int port = 9000;
         String host = null;
@@ -45,6 +45,15 @@ public class Main {
             .longOpt("help")
             .build();
 
+    static Option workers = Option.builder("w")
+            .longOpt("workers")
+            .argName("amount")
+            .hasArg()
+            .desc("Amount of workers handling independent queries (default 1). "
+                    + "The CDD kernel is used by one query at a time, "
+                    + "so only parsing and work outside the kernel overlaps")
+            .build();
+
 
     public static void main(String[] args) {
         Log.setUrgency(Urgency.Info);
@@ -53,6 +62,7 @@ public class Main {
         options.addOption(outputFolder);
         options.addOption(inputFolder);
         options.addOption(help);
+        options.addOption(workers);
 
         CommandLineParser parser = new DefaultParser();
         HelpFormatter formatter = new HelpFormatter();
@@ -66,9 +76,11 @@ public class Main {
                 return;
             }
 
+            int workerAmount = Integer.parseInt(cmd.getOptionValue("workers", "1"));
+
             if(cmd.hasOption("proto")){
                 String address = cmd.getOptionValue("proto");
-                GrpcServer server = new GrpcServer(address);
+                GrpcServer server = cmd.hasOption("workers") ? new GrpcServer(address, workerAmount) : new GrpcServer(address);
                 try {
                     server.start();
                     server.blockUntilShutdown();
@@ -92,13 +104,14 @@ public class Main {
             try {
                 List<Query> queries = new ArrayList<>();
                 if(inputFolderPath.endsWith(".xml")){
-                    queries = Controller.handleRequest("-xml " + inputFolderPath, queryString, false);
+                    queries = Controller.handleRequest("-xml " + inputFolderPath, queryString, false, workerAmount);
                 }else{
-                    queries = Controller.handleRequest("-json " + inputFolderPath, queryString, false);
+                    queries = Controller.handleRequest("-json " + inputFolderPath, queryString, false, workerAmount);
                 }
                 for (Query query: queries) {
                     Log.info(query.getResult());
                     Log.info(query.getResultStrings());
+                    Log.info("Wall time: " + query.getWallTime() / 1_000_000 + " ms");
                 }
 
             } catch (Exception e) {
@@ -9,8 +9,9 @@ public abstract class AggregatedTransitionSystem extends TransitionSystem {
     protected final TransitionSystem[] systems;
     private final HashMap<Clock, Integer> maxBounds = new HashMap<>();
 
-    private final HashSet<State> passed = new HashSet<>();
-    private final Queue<State> worklist = new ArrayDeque<>();
+    private final PassedWaitingList passedWaiting = new PassedWaitingList();
+
+    protected final MoveCache moveCache = new MoveCache();
 
     private Automaton resultant = null;
 
@@ -44,33 +45,48 @@ public abstract class AggregatedTransitionSystem extends TransitionSystem {
     }
 
     @Override
-    public Location getInitialLocation() {
-        return getInitialLocation(systems);
+    public LUBounds getLUBounds(Location location) {
+        // Locations which are not a product of the systems, e.g. the universal location of a quotient, use the max bounds
+        if (!location.isComposed() || location.getChildren().size() != systems.length) {
+            return super.getLUBounds(location);
+        }
+
+        LUBounds bounds = new LUBounds();
+        for (int i = 0; i < systems.length; i++) {
+            bounds = bounds.merge(systems[i].getLUBounds(location.getChildren().get(i)));
+        }
+        return bounds;
     }
 
     @Override
-    public Automaton getAutomaton() {
-        // No need for recomputing the same composition
-        if (resultant != null) {
-            return resultant;
+    public Set<Clock> getActiveClocks(Location location) {
+        if (!location.isComposed() || location.getChildren().size() != systems.length) {
+            return super.getActiveClocks(location);
         }
 
-        /* Before creating the composition and thereby initialising the CDD.
-         *   We must ensure that the underlying operands (Transition systems),
-         *   have processed their automaton such that we won't start multiple
-         *   CDDs by invoking "GetAutomaton" on the underlying TransitionSystems */
-        Automaton[] automata = new Automaton[systems.length];
+        Set<Clock> activeClocks = new HashSet<>();
         for (int i = 0; i < systems.length; i++) {
-            automata[i] = systems[i].getAutomaton();
+            activeClocks.addAll(systems[i].getActiveClocks(location.getChildren().get(i)));
         }
+        return activeClocks;
+    }
 
-        /* We utilise a try-finally such that we can correctly clean up whilst still immediately
-         *   rethrow the exceptions as we can't handle a failure (most likely from the CDD).
-         *   This especially helps increase the meaning of failing tests */
-        try {
-            resultant = aggregate(automata);
-        } finally {
-            CDD.done();
+    @Override
+    public Location getInitialLocation() {
+        return getInitialLocation(systems);
+    }
+
+    /**
+     * Materialises the product of the systems as an {@link Automaton} by exploring all reachable states.
+     * The product is otherwise explored lazily through {@link #getNextMoves(Location, Channel)},
+     * so this should only be used when the automaton itself is required, e.g. when saving or exporting a component.
+     * The operands are not materialised, as the product is explored through their successor functions.
+     */
+    @Override
+    public Automaton getAutomaton() {
+        // No need for recomputing the same composition
+        if (resultant == null) {
+            resultant = aggregate();
         }
 
         return resultant;
@@ -86,7 +102,7 @@ public abstract class AggregatedTransitionSystem extends TransitionSystem {
     @Override
     public List<Move> getNextMoves(Location location, Channel channel) {
         // Check if action belongs to this transition system at all before proceeding
-        if (!getOutputs().contains(channel) && !getInputs().contains(channel)) {
+        if (!getActionAlphabet().contains(channel)) {
             return new ArrayList<>();
         }
 
@@ -108,7 +124,20 @@ public abstract class AggregatedTransitionSystem extends TransitionSystem {
             );
         }
 
-        return computeResultMoves(locations, channel);
+        return moveCache.get(location, channel, () -> computeResultMoves(locations, channel));
+    }
+
+    @Override
+    public long getPrunedMoves() {
+        long pruned = super.getPrunedMoves();
+        for (TransitionSystem system : systems) {
+            pruned += system.getPrunedMoves();
+        }
+        return pruned;
+    }
+
+    public MoveCache getMoveCache() {
+        return moveCache;
     }
 
     protected List<Move> computeResultMoves(List<Location> locations, Channel channel) {
@@ -119,10 +148,6 @@ public abstract class AggregatedTransitionSystem extends TransitionSystem {
         return Arrays.asList(systems);
     }
 
-    protected boolean in(Channel element, Set<Channel> set) {
-        return set.contains(element);
-    }
-
     protected Set<Channel> intersect(Set<Channel> set1, Set<Channel> set2) {
         Set<Channel> intersection = new HashSet<>(set1);
         intersection.retainAll(set2);
@@ -141,118 +166,121 @@ public abstract class AggregatedTransitionSystem extends TransitionSystem {
         return union;
     }
 
-    private Automaton aggregate(Automaton[] automata) {
+    private Automaton aggregate() {
         boolean initialisedCdd = CDD.tryInit(getClocks(), BVs.getItems());
 
-        String name = getName();
+        Automaton resAut;
+        // Only the guards and invariants of the aggregated automaton outlive the exploration
+        try (CddScope scope = new CddScope()) {
+            String name = getName();
 
-        Set<Edge> edges = new HashSet<>();
-        Set<Location> locations = new HashSet<>();
-        Map<String, Location> locationMap = new HashMap<>();
+            Set<Edge> edges = new HashSet<>();
+            Map<List<Object>, List<Edge>> edgesByEnds = new HashMap<>();
+            Set<Location> locations = new HashSet<>();
+            Map<String, Location> locationMap = new HashMap<>();
 
-        State initialState = getInitialState();
-        Location initial = initialState.getLocation();
-        locations.add(initial);
-        locationMap.put(initial.getName(), initial);
+            State initialState = getInitialState();
+            Location initial = initialState.getLocation();
+            locations.add(initial);
+            locationMap.put(initial.getName(), initial);
 
-        Set<Channel> channels = new HashSet<>();
-        channels.addAll(getOutputs());
-        channels.addAll(getInputs());
+            Set<Channel> channels = new HashSet<>();
+            channels.addAll(getOutputs());
+            channels.addAll(getInputs());
 
-        worklist.add(
-                getInitialState()
-        );
-
-        while (!worklist.isEmpty()) {
-            State state = worklist.remove();
-            passed.add(state);
-
-            for (Channel channel : channels) {
-                List<Transition> transitions = getNextTransitions(state, channel, clocks.getItems());
-
-                for (Transition transition : transitions) {
-                    /* Get the state following the transition and then extrapolate. If we have not
-                     *   already visited the location, this is equivalent to simulating the arrival
-                     *   at that location following this transition with the current "channel". */
-                    State targetState = transition.getTarget();
-                    if (!havePassed(targetState) && !isWaitingFor(targetState)) {
-                        targetState.extrapolateMaxBounds(maxBounds, getClocks());
-                        worklist.add(targetState);
-                    }
+            passedWaiting.addToWaiting(
+                    getInitialState()
+            );
 
-                    /* If we don't already have the "targetState" location added
-                     *   To the set of locations for the conjunction then add it. */
-                    String targetName = targetState.getLocation().getName();
-                    locationMap.computeIfAbsent(
-                            targetName, key -> {
-                                Location newLocation = Location.createFromState(targetState);
-                                locations.add(newLocation);
-                                return newLocation;
-                            }
-                    );
-
-                    // Create and add the edge connecting the conjoined locations
-                    String sourceName = transition.getSource().getLocation().getName();
-
-                    assert locationMap.containsKey(sourceName);
-                    assert locationMap.containsKey(targetName);
-
-                    Edge edge = createEdgeFromTransition(
-                            transition,
-                            locationMap.get(sourceName),
-                            locationMap.get(targetName),
-                            channel
-                    );
-                    if (!containsEdge(edges, edge)) {
-                        edges.add(edge);
+            while (passedWaiting.hasWaiting()) {
+                State state = passedWaiting.removeFromWaiting();
+                passedWaiting.addToPassed(state);
+
+                for (Channel channel : channels) {
+                    List<Transition> transitions = getNextTransitions(state, channel, clocks.getItems());
+
+                    for (Transition transition : transitions) {
+                        /* Get the state following the transition and then extrapolate. If we have not
+                         *   already visited the location, this is equivalent to simulating the arrival
+                         *   at that location following this transition with the current "channel". */
+                        State targetState = transition.getTarget();
+                        if (!passedWaiting.contains(targetState)) {
+                            targetState.extrapolateMaxBounds(maxBounds, getClocks());
+                            passedWaiting.addToWaiting(targetState);
+                        }
+
+                        /* If we don't already have the "targetState" location added
+                         *   To the set of locations for the conjunction then add it. */
+                        String targetName = targetState.getLocation().getName();
+                        locationMap.computeIfAbsent(
+                                targetName, key -> {
+                                    Location newLocation = Location.createFromState(targetState);
+                                    locations.add(newLocation);
+                                    return newLocation;
+                                }
+                        );
+
+                        // Create and add the edge connecting the conjoined locations
+                        String sourceName = transition.getSource().getLocation().getName();
+
+                        assert locationMap.containsKey(sourceName);
+                        assert locationMap.containsKey(targetName);
+
+                        Edge edge = createEdgeFromTransition(
+                                transition,
+                                locationMap.get(sourceName),
+                                locationMap.get(targetName),
+                                channel
+                        );
+                        if (addEdge(edgesByEnds, edge)) {
+                            edges.add(edge);
+                        }
                     }
                 }
             }
-        }
 
-        List<Location> updatedLocations = updateLocations(
-                locations, getClocks(), getClocks(), getBVs(), getBVs()
-        );
-        List<Edge> edgesWithNewClocks = updateEdges(edges, clocks.getItems(), clocks.getItems(), BVs.getItems(), BVs.getItems());
-        Automaton resAut = new Automaton(name, updatedLocations, edgesWithNewClocks, clocks.getItems(), BVs.getItems(), false);
+            List<Location> updatedLocations = updateLocations(
+                    locations, getClocks(), getClocks(), getBVs(), getBVs()
+            );
+            List<Edge> edgesWithNewClocks = updateEdges(edges, clocks.getItems(), clocks.getItems(), BVs.getItems(), BVs.getItems());
+            resAut = new Automaton(name, updatedLocations, edgesWithNewClocks, clocks.getItems(), BVs.getItems(), false);
+        } finally {
+            // The states refer to the released CDDs of the scope
+            passedWaiting.clear();
 
-        if (initialisedCdd) {
-            CDD.done();
+            if (initialisedCdd) {
+                CDD.done();
+            }
         }
 
         return resAut;
     }
 
-    private boolean havePassed(State element) {
-        for (State state : passed) {
-            if (element.getLocation().getName().equals(state.getLocation().getName()) &&
-                    element.getInvariant().isSubset(state.getInvariant())) {
-                return true;
-            }
-        }
-        return false;
-    }
-
-    private boolean isWaitingFor(State element) {
-        for (State state : worklist) {
-            if (element.getLocation().getName().equals(state.getLocation().getName()) &&
-                    element.getInvariant().isSubset(state.getInvariant())) {
-                return true;
-            }
+    /**
+     * Adds the edge unless an edge with the same ends, action, updates, and guard has already been added.
+     * The guards are compared for equivalence as {@link CDD CDDs}, so they don't have to be converted to compare them.
+     *
+     * @return <code>true</code> if the edge was added.
+     */
+    private boolean addEdge(Map<List<Object>, List<Edge>> edgesByEnds, Edge edge) {
+        List<Object> ends = Arrays.asList(
+                edge.getSource().getName(), edge.getTarget().getName(), edge.getChannel(), edge.isInput(), edge.getUpdates()
+        );
+        List<Edge> candidates = edgesByEnds.computeIfAbsent(ends, key -> new ArrayList<>());
+        CDD guard = edge.getGuardCDD();
+        if (candidates.stream().anyMatch(other -> other.getGuardCDD().equiv(guard))) {
+            return false;
         }
-        return false;
-    }
 
-    private boolean containsEdge(Set<Edge> set, Edge edge) {
-        return set.stream().anyMatch(other -> other.equals(edge) &&
-                other.getGuardCDD().equals(edge.getGuardCDD())
-        );
+        candidates.add(edge);
+        return true;
     }
 
     private Edge createEdgeFromTransition(Transition transition, Location source, Location target, Channel channel) {
-        Guard guard = transition.getGuards(getClocks());
+        // The guard is kept as a CDD and only converted if the aggregated automaton is exported
+        CDD guard = transition.getMove().getGuardCDD();
         List<Update> updates = transition.getUpdates();
         boolean isInput = getInputs().contains(channel);
-        return new Edge(source, target, channel, isInput, guard, updates);
+        return new Edge(source, target, channel, isInput, guard, getClocks(), updates);
     }
 }
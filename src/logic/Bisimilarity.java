@@ -76,10 +76,10 @@ public class Bisimilarity {
             for (Location l : list)
             {
                   for (Edge e : edges) {
-                      if (e.getTarget().equals(l))
-                          e.setTarget(chosen);
-                      if (e.getSource().equals(l))
-                          e.setSource(chosen);
+                      Location source = e.getSource().equals(l) ? chosen : e.getSource();
+                      Location target = e.getTarget().equals(l) ? chosen : e.getTarget();
+                      if (source != e.getSource() || target != e.getTarget())
+                          copy.redirectEdge(e, source, target);
                   }
             }
         }
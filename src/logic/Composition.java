@@ -4,9 +4,12 @@ import models.*;
 
 import java.util.*;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 public class Composition extends AggregatedTransitionSystem {
     private Set<Channel> inputs, outputs;
+    // The indices of the systems which have a channel as an action, such that moves are only computed for those systems
+    private final Map<Channel, int[]> participants = new HashMap<>();
 
     public Composition(TransitionSystem... systems)
             throws IllegalArgumentException {
@@ -37,11 +40,7 @@ public class Composition extends AggregatedTransitionSystem {
                 TransitionSystem system_j = systems[j];
 
                 // Same output actions check
-                Set<Channel> output_intersection = intersect(
-                        system_i.getOutputs(),
-                        system_j.getOutputs()
-                );
-                if (!output_intersection.isEmpty()) {
+                if (system_i.getOutputAlphabet().intersects(system_j.getOutputAlphabet())) {
                     throw new IllegalArgumentException(
                             "The output actions of all pairs of specifications must have an empty intersection"
                     );
@@ -59,6 +58,12 @@ public class Composition extends AggregatedTransitionSystem {
                 );
             }
         }
+
+        for (Channel channel : union(inputs, outputs)) {
+            participants.put(channel, IntStream.range(0, systems.length)
+                    .filter(i -> systems[i].getActionAlphabet().contains(channel))
+                    .toArray());
+        }
     }
 
     @Override
@@ -79,15 +84,34 @@ public class Composition extends AggregatedTransitionSystem {
                 .collect(Collectors.joining(" || "));
     }
 
+    /**
+     * Returns the indices of the systems which have the channel as an action, in the order of the systems.
+     * Only these systems can move on the channel, the other systems stay in their location.
+     */
+    private int[] getParticipants(Channel channel) {
+        int[] participating = participants.get(channel);
+        return participating != null ? participating : new int[0];
+    }
+
     @Override
     protected List<Move> computeResultMoves(List<Location> locations, Channel channel) {
         if (locations.size() != getRootSystems().size()) {
             throw new IllegalArgumentException("There must be exactly the same amount of locations as systems");
         }
 
-        List<Move> resultMoves = new ArrayList<>();
-        for (int i = 0; i < getRootSystems().size(); i++) {
-
+        /* The product is only taken over the systems participating in the channel.
+         *   A system which does not have the channel as an action stays in its location
+         *   without any edges, so it does not contribute to the product except for its location.
+         *   Each combination keeps the target location and the edges of every system moved so far,
+         *   and the conjunction of their guards such that unsatisfiable combinations are pruned early. */
+        List<Location[]> targets = new ArrayList<>();
+        List<List<Edge>> edges = new ArrayList<>();
+        List<CDD> guards = new ArrayList<>();
+        targets.add(locations.toArray(new Location[0]));
+        edges.add(new ArrayList<>());
+        guards.add(CDD.cddTrue());
+
+        for (int i : getParticipants(channel)) {
             /* Here "i" is not only the index of the system,
              *   but the order of the locations must also follow
              *   the one of the composition meaning that the i'th
@@ -95,33 +119,54 @@ public class Composition extends AggregatedTransitionSystem {
             TransitionSystem system = getRootSystems().get(i);
             Location location = locations.get(i);
 
-            /* By iterating through all systems and then getting the next moves
-             *   for each system we get a set of all next moves for all systems. */
             List<Move> moves = system.getNextMoves(location, channel);
 
             /* Previously this check was done in "getNextTransitions" by invoking "checkForOutputs".
              *   But it recomputed the set of next moves in order to check whether every system
              *   as a move for the output action. This ensures that if the channel is an output
              *   the system does have a corresponding move. */
-            if (system.getOutputs().contains(channel) &&
+            if (system.getOutputAlphabet().contains(channel) &&
                     moves.isEmpty()) {
                 return new ArrayList<>();
             }
 
-            // If we don't have any moves away from the locations then stay
+            // If we don't have any moves away from the location then stay, which leaves all combinations unchanged
             if (moves.isEmpty()) {
-                Move stay = new Move(location, location);
-                moves.add(stay);
+                continue;
             }
 
-            if (i == 0) {
-                resultMoves = moves;
-            } else {
-                // We get the cartesian product of all the moves
-                resultMoves = moveProduct(resultMoves, moves, i == 1, false);
+            // We get the cartesian product of the combinations and the moves
+            List<Location[]> nextTargets = new ArrayList<>(targets.size() * moves.size());
+            List<List<Edge>> nextEdges = new ArrayList<>(targets.size() * moves.size());
+            List<CDD> nextGuards = new ArrayList<>(targets.size() * moves.size());
+            for (int j = 0; j < targets.size(); j++) {
+                for (Move move : moves) {
+                    CDD guard = guards.get(j).conjunction(move.getEdgeGuardCDD());
+                    if (guard.isFalse()) {
+                        prunedMoves.increment();
+                        continue;
+                    }
+
+                    Location[] target = targets.get(j).clone();
+                    target[i] = move.getTarget();
+                    List<Edge> moveEdges = new ArrayList<>(edges.get(j));
+                    moveEdges.addAll(move.getEdges());
+                    nextTargets.add(target);
+                    nextEdges.add(moveEdges);
+                    nextGuards.add(guard);
+                }
             }
+            targets = nextTargets;
+            edges = nextEdges;
+            guards = nextGuards;
         }
 
+        Location source = Location.createComposition(locations);
+        List<Move> resultMoves = new ArrayList<>(targets.size());
+        for (int j = 0; j < targets.size(); j++) {
+            Location target = Location.createComposition(Arrays.asList(targets.get(j)));
+            resultMoves.add(new Move(source, target, edges.get(j), guards.get(j)));
+        }
         return resultMoves;
     }
-}
\ No newline at end of file
+}
@@ -12,19 +12,29 @@ import models.Clock;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 public class Controller {
-    private static List<Automaton> automata = new ArrayList<>();
+    // Components are saved by queries which can be handled concurrently with the handling of other requests
+    private static List<Automaton> automata = new CopyOnWriteArrayList<>();
     private static List<Clock> clocksInCurrentQuery = new ArrayList<>();
 
     public static List<Query> handleRequest(String location, String queryString, boolean trace) throws Exception {
+        return handleRequest(location, queryString, trace, 1);
+    }
+
+    /**
+     * Parses the components at the location and handles the queries, where independent queries are
+     * handled concurrently by the provided amount of workers. The queries are returned in the input order.
+     */
+    public static List<Query> handleRequest(String location, String queryString, boolean trace, int workers) throws Exception {
         ArrayList<String> temp = new ArrayList<>(Arrays.asList(location.split(" ")));
         boolean isJson = temp.get(0).equals("-json");
         String folderLoc = temp.get(1);
 
         parseComponents(folderLoc, isJson); // Parses components and adds them to local variable cmpt
 
-        return QueryParser.parse(queryString, automata);
+        return QueryParser.parse(queryString, automata, workers);
     }
 
     public static Query handleRequest(String queryString) throws Exception {
@@ -57,6 +67,17 @@ public class Controller {
         }
     }
 
+    /**
+     * Saves the transition system as a component if a name is given.
+     * The automaton of an aggregated transition system is materialised here, so queries which only optionally
+     * save their system must only call this method when the system is actually saved.
+     */
+    public static void saveSystem(TransitionSystem ts, String name){
+        if(name != null){
+            saveAutomaton(ts.getAutomaton(), name);
+        }
+    }
+
     public static void saveAutomaton(Automaton aut, String name){
         if(name != null){
             aut.setName(name);
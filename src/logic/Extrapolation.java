@@ -0,0 +1,24 @@
+package logic;
+
+/**
+ * The abstraction used to extrapolate the zones of the states reached by an exploration,
+ * such that the exploration terminates for clocks which are never reset.
+ */
+public enum Extrapolation {
+    /**
+     * Extrapolates all states with the largest constant each clock is compared with anywhere in the systems.
+     */
+    MAX_BOUNDS,
+    /**
+     * Extrapolates the states of each location with the max bounds of the clocks in that location,
+     * i.e. the largest constant each clock is compared with before it is reset.
+     * This gives a coarser abstraction, and thereby fewer states, than the global max bounds.
+     * <p>
+     * The bounds are derived from the lower and upper bounds of the location, but LU abstraction itself is
+     * not applied as it is only known to be sound for reachability and not for refinement.
+     * </p>
+     *
+     * @see TransitionSystem#getLUBounds(models.Location)
+     */
+    LOCAL_MAX_BOUNDS
+}
@@ -21,7 +21,7 @@ public class GraphEdge {
 
     public GraphEdge(GraphNode source, GraphNode target, List<Edge> edgesL, List<Edge> edgesR, CDD subsetCDD) {
         this(source, target, edgesL, edgesR);
-        this.subsetCDD = new CDD(subsetCDD.getPointer());
+        this.subsetCDD = subsetCDD.hardCopy();
     }
 
     public CDD getSubsetZone() {
@@ -0,0 +1,105 @@
+package logic;
+
+import models.CDD;
+import models.CddScope;
+import models.Channel;
+import models.Location;
+import models.Move;
+
+import java.util.*;
+import java.util.function.Supplier;
+
+/**
+ * A bounded cache of the moves of an {@link AggregatedTransitionSystem} from a location with a channel.
+ * Computing the moves of an aggregated system computes the product of the moves of its systems,
+ * which creates new composed locations and conjoins the guards of all edges.
+ * As the same location and channel is requested many times during refinement and aggregation,
+ * the moves are only computed the first time they are requested in a kernel session.
+ * <p>
+ * The guards of the moves are {@link CDD CDDs} bound to the kernel session in which they were computed,
+ * for this reason the cache is cleared when it is used in a new kernel session.
+ * When the cache is full the least recently used entry is evicted.
+ * </p>
+ * <p>
+ * As moves are mutable, the cached moves are never handed out. Every request gets copies of the cached moves,
+ * such that a caller changing its moves does not change the moves of later requests.
+ * </p>
+ */
+public final class MoveCache {
+    public static final int DEFAULT_CAPACITY = 4096;
+
+    private final Map<List<Object>, List<Move>> moves;
+    private int session;
+    private long hits;
+    private long misses;
+
+    public MoveCache() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public MoveCache(int capacity) {
+        moves = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<List<Object>, List<Move>> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * Returns copies of the cached moves from the location with the channel, computing them if they are not cached.
+     * Both the returned list and its moves can be changed without changing the cached moves.
+     *
+     * @param location The location of the moves.
+     * @param channel The channel of the moves.
+     * @param compute Computes the moves if they are not cached.
+     * @return The moves from the location with the channel.
+     */
+    public synchronized List<Move> get(Location location, Channel channel, Supplier<List<Move>> compute) {
+        if (session != CDD.getSession()) {
+            moves.clear();
+            session = CDD.getSession();
+        }
+
+        List<Object> key = Arrays.asList(location, channel);
+        List<Move> cached = moves.get(key);
+        if (cached != null) {
+            hits++;
+            return copy(cached);
+        }
+
+        misses++;
+        List<Move> computed = compute.get();
+        for (Move move : computed) {
+            // The cached guards must outlive the scope in which they were computed
+            CddScope.retain(move.getGuardCDD());
+            CddScope.retain(move.getEdgeGuardCDD());
+        }
+        moves.put(key, new ArrayList<>(computed));
+        return copy(computed);
+    }
+
+    private static List<Move> copy(List<Move> moves) {
+        List<Move> copies = new ArrayList<>(moves.size());
+        for (Move move : moves) {
+            copies.add(new Move(move));
+        }
+        return copies;
+    }
+
+    public synchronized void clear() {
+        moves.clear();
+    }
+
+    public synchronized int size() {
+        return moves.size();
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+}
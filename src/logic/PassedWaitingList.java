@@ -0,0 +1,170 @@
+package logic;
+
+import models.CDD;
+import models.Location;
+
+import java.util.*;
+
+/**
+ * {@link PassedWaitingList} is the passed and waiting list of a forward exploration of symbolic {@link State states}.
+ * The states are bucketed by their location, such that an inclusion check only has to consider
+ * the states of the same location instead of every state explored so far.
+ * <p>
+ * Each location is interned to a dense id the first time it is seen by the list.
+ * Two locations are considered the same if they are {@link Location#equals(Object) equal},
+ * so composed locations created by different transitions end up in the same bucket.
+ * </p>
+ * <p>
+ * The waiting states are removed in the order of which they were added.
+ * Adding a state removes the waiting states of the same location which are included in it,
+ * as exploring the added state also explores the included states.
+ * The included states are only removed from the bucket of their location, and are left in the queue
+ * to be skipped when they reach its front, such that neither adding nor removing a state scans the whole queue.
+ * </p>
+ */
+public class PassedWaitingList {
+    private final Map<Location, Integer> locationIds = new HashMap<>();
+    private final List<List<State>> passed = new ArrayList<>();
+    private final List<Set<State>> waitingByLocation = new ArrayList<>();
+    // The waiting states in order, including the states which have since been removed from their bucket
+    private final Deque<State> waiting = new ArrayDeque<>();
+    private int waitingSize;
+    // The number of states removed from waiting to be explored, and the number removed as a larger state was added
+    private long expanded, subsumed;
+
+    /**
+     * Returns the interned id of the location, which is assigned the first time the location is seen.
+     *
+     * @param location The location to get the id of.
+     * @return The dense id of the location.
+     */
+    public int getLocationId(Location location) {
+        Integer id = locationIds.get(location);
+        if (id == null) {
+            id = locationIds.size();
+            locationIds.put(location, id);
+            passed.add(new ArrayList<>());
+            waitingByLocation.add(new LinkedHashSet<>());
+        }
+        return id;
+    }
+
+    public void addToPassed(State state) {
+        passed.get(getLocationId(state.getLocation())).add(state);
+    }
+
+    public void addToWaiting(State state) {
+        Set<State> bucket = waitingByLocation.get(getLocationId(state.getLocation()));
+
+        Iterator<State> iterator = bucket.iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().getInvariant().isSubset(state.getInvariant())) {
+                iterator.remove();
+                waitingSize--;
+                subsumed++;
+            }
+        }
+
+        if (bucket.add(state)) {
+            waiting.add(state);
+            waitingSize++;
+        }
+    }
+
+    public State removeFromWaiting() {
+        if (!hasWaiting()) {
+            throw new NoSuchElementException();
+        }
+
+        State state = waiting.remove();
+        waitingByLocation.get(getLocationId(state.getLocation())).remove(state);
+        waitingSize--;
+        expanded++;
+        return state;
+    }
+
+    public boolean hasWaiting() {
+        skipRemovedWaiting();
+        return !waiting.isEmpty();
+    }
+
+    /**
+     * Removes the states at the front of the queue which have been removed from their bucket as they were included.
+     */
+    private void skipRemovedWaiting() {
+        while (!waiting.isEmpty()) {
+            State state = waiting.peek();
+            if (waitingByLocation.get(getLocationId(state.getLocation())).contains(state)) {
+                return;
+            }
+            waiting.remove();
+        }
+    }
+
+    /**
+     * Returns whether the zone of the state is included in the zone of a passed state with the same location.
+     */
+    public boolean passedContains(State state) {
+        return bucketContains(passed, state);
+    }
+
+    /**
+     * Returns whether the zone of the state is included in the zone of a waiting state with the same location.
+     */
+    public boolean waitingContains(State state) {
+        return bucketContains(waitingByLocation, state);
+    }
+
+    public boolean contains(State state) {
+        return passedContains(state) || waitingContains(state);
+    }
+
+    private boolean bucketContains(List<? extends Collection<State>> buckets, State state) {
+        Integer id = locationIds.get(state.getLocation());
+        if (id == null) {
+            return false;
+        }
+
+        List<CDD> invariants = new ArrayList<>();
+        for (State other : buckets.get(id)) {
+            invariants.add(other.getInvariant());
+        }
+        return state.getInvariant().indexOfSuperset(invariants) >= 0;
+    }
+
+    public int getPassedSize() {
+        int size = 0;
+        for (List<State> bucket : passed) {
+            size += bucket.size();
+        }
+        return size;
+    }
+
+    public int getWaitingSize() {
+        return waitingSize;
+    }
+
+    /**
+     * Returns the number of states which have been removed from waiting to be explored.
+     */
+    public long getExpandedCount() {
+        return expanded;
+    }
+
+    /**
+     * Returns the number of waiting states which were removed as a state including them was added.
+     */
+    public long getSubsumedCount() {
+        return subsumed;
+    }
+
+    public void clear() {
+        locationIds.clear();
+        passed.clear();
+        waitingByLocation.clear();
+        waiting.clear();
+        waitingSize = 0;
+        expanded = 0;
+        subsumed = 0;
+    }
+}
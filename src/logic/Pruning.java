@@ -58,23 +58,23 @@ public class Pruning {
                 Log.debug("Handling the new location " + targetLoc);
 
             // for all incoming transitions // TODO: is this really supposed to include selfloops
-            for (Edge e : edges.stream().filter(e -> e.getTarget().equals(targetLoc)).collect(Collectors.toList())) { // && !e.getSource().equals(targetLoc)).collect(Collectors.toList())) {
+            for (Edge e : aut.getEdgesToLocation(targetLoc)) { // && !e.getSource().equals(targetLoc)).collect(Collectors.toList())) {
                 if (e.isInput()) {
-                    handleInput(targetLoc, e, edges,passedInconsistentStates,inconsistentQueue);
+                    handleInput(targetLoc, e, aut,passedInconsistentStates,inconsistentQueue);
                 } else
-                    handleOutput(targetLoc, e, edges, clocks, passedInconsistentStates, inconsistentQueue);
+                    handleOutput(targetLoc, e, aut, clocks, passedInconsistentStates, inconsistentQueue);
             }
         }
 
         if (printComments)
             Log.debug("no more inconsistent locations");
 
-        addInconsistentPartsToInvariants(locations,clocks);
+        addInconsistentPartsToInvariants(aut,clocks);
 
         if (printComments)
             Log.debug("inconsistent parts integrated into invariants");
 
-        addInvariantsToGuards(edges,clocks);
+        addInvariantsToGuards(aut,clocks);
 
         if (printComments)
             Log.debug("invariants integrated into guards");
@@ -131,19 +131,19 @@ public class Pruning {
 
     /**
      *  Iterates through all locations, and modifies the invariants to exclude all inconsistent parts
-     * @param locations List of all locations
+     * @param aut The automaton being pruned
      * @param clocks List of all clocks
      */
-    public static void addInconsistentPartsToInvariants(List<Location> locations, List<Clock> clocks) {
-        for (Location l : locations) {
+    public static void addInconsistentPartsToInvariants(Automaton aut, List<Clock> clocks) {
+        for (Location l : aut.getLocations()) {
             if (l.isInconsistent()) {
                 CDD incCDD = l.getInconsistentPart();
                 if (incCDD.isUnrestrained()) {
-                    l.setInvariantGuard(new FalseGuard());
+                    aut.setInvariant(l, new FalseGuard());
                 }
                 else {
                     CDD invarMinusIncCDD = new CDD(l.getInvariantGuard()).minus(l.getInconsistentPart());
-                    l.setInvariantGuard(invarMinusIncCDD.getGuard(clocks));
+                    aut.setInvariant(l, invarMinusIncCDD, clocks);
                 }
             }
         }
@@ -151,16 +151,16 @@ public class Pruning {
 
     /**
      * Adds all invariants to the guards, just as input enabling does.
-     * @param edges List of all edges
+     * @param aut The automaton being pruned
      * @param clocks List of all clocks
      */
-    public static void addInvariantsToGuards(List<Edge> edges, List<Clock> clocks) {
-        for (Edge e : edges) {
+    public static void addInvariantsToGuards(Automaton aut, List<Clock> clocks) {
+        for (Edge e : aut.getEdges()) {
             if (!(e.getTarget().getInvariantGuard() instanceof TrueGuard)) {
                 if (!(e.getTarget().getInvariantGuard() instanceof FalseGuard)) {
                     CDD target = new CDD(e.getTarget().getInvariantGuard());
                     CDD cddBeforeEdge = target.transitionBack(e);
-                    e.setGuard(cddBeforeEdge.conjunction(new CDD(e.getSource().getInvariantGuard())).getGuard(clocks));
+                    aut.setEdgeGuard(e, cddBeforeEdge.conjunction(new CDD(e.getSource().getInvariantGuard())), clocks);
                 }
             }
         }
@@ -170,12 +170,12 @@ public class Pruning {
      * Handle an output towards an inconsistent location
      * @param targetLoc the target location
      * @param e the edge towards that location
-     * @param edges the set of all edges in the automaton
+     * @param aut the automaton being pruned
      * @param clocks the set of all clocks
      * @param passedPairs the list of passed inconsistent states
      * @param inconsistentQueue the queue of inconsistent states to process
      */
-    public static void handleOutput(Location targetLoc, Edge e, List<Edge>edges, List<Clock> clocks,  Map<Location, CDD> passedPairs, Queue<Location> inconsistentQueue ) {
+    public static void handleOutput(Location targetLoc, Edge e, Automaton aut, List<Clock> clocks,  Map<Location, CDD> passedPairs, Queue<Location> inconsistentQueue ) {
 
         if (printComments)
             Log.debug("Handling an output to inc.");
@@ -185,7 +185,7 @@ public class Pruning {
         if (targetLoc.getInconsistentPart().isUnrestrained()) {
             if (printComments)
                 Log.debug("fully inconsistent target");
-            edges.remove(e);
+            aut.removeEdge(e);
         } else {
             if (printComments)
                 Log.debug("partially inconsistent target");
@@ -195,12 +195,12 @@ public class Pruning {
             // TODO 05.02.21: include target invariant or source invariant here?
 
             // take the inconsistent federation and free the clocks of the output transition
-            CDD target = new CDD(targetLoc.getInconsistentPart().getPointer());
+            CDD target = targetLoc.getInconsistentPart().hardCopy();
             target = target.transitionBack(e);
             CDD guardCDD = e.getGuardCDD();
             CDD fedAfterRemovingInconsistentPart =guardCDD.minus(target);
 
-            e.setGuard(fedAfterRemovingInconsistentPart.getGuard(clocks));
+            aut.setEdgeGuard(e, fedAfterRemovingInconsistentPart, clocks);
         }
 
         // Removing the transition / strenthening the guards might have turned the source location inconsistent
@@ -217,14 +217,14 @@ public class Pruning {
             // build the federation of all transitions that could save us (= the consistent part of all output transitions) // TODO: Shoudl this be done with PREDT???
             List<Zone> emptyZoneList = new ArrayList<>();
             CDD cddThatSavesUs = CDD.cddFalse();
-            for (Edge otherE : edges) {
-                if (otherE.getSource().equals(e.getSource()) && !otherE.isInput()) { //&& !otherE.equals(e)) { TODO 05.02.21: I also consider the current edge, but I think this is okay
+            for (Edge otherE : aut.getEdgesFromLocation(e.getSource())) {
+                if (!otherE.isInput()) { //&& !otherE.equals(e)) { TODO 05.02.21: I also consider the current edge, but I think this is okay
                     if (otherE.getTarget().isInconsistent()) {
                         if (printComments)
                             Log.debug("OtherEdge is inconsistent");
                         // calculate and backtrack the part that is NOT inconsistent
 
-                        CDD incPartOfTransThatSavesUs = new CDD(otherE.getTarget().getInconsistentPart().getPointer());
+                        CDD incPartOfTransThatSavesUs = otherE.getTarget().getInconsistentPart().hardCopy();
                         CDD targetInvariantCDDOfTransThatSavesUs = new CDD(otherE.getTarget().getInvariantGuard());
                         CDD goodPart = targetInvariantCDDOfTransThatSavesUs.minus(incPartOfTransThatSavesUs);
 
@@ -266,7 +266,7 @@ public class Pruning {
 
         // we need to add all the locations that could have been "saved" by this transition back to the list of inconsistent locations, because they might not be saved anymore now
         // i.e., when we had an input transition leading to an inconsistent location, we might have created a predt federation based on the output we just removed or restricted, so we need to do it again
-        for (Edge e_i : edges.stream().filter(e_i -> e_i.getSource().equals(e.getSource()) && e_i.isInput() && e_i.getTarget().isInconsistent()).collect(Collectors.toList())) {
+        for (Edge e_i : aut.getEdgesFromLocation(e.getSource()).stream().filter(e_i -> e_i.isInput() && e_i.getTarget().isInconsistent()).collect(Collectors.toList())) {
             if (printComments)
                 Log.debug("Adding outputs that leave the source location back to the stack, as they might not be safed anymore");
             inconsistentQueue.add(e_i.getTarget());
@@ -275,7 +275,7 @@ public class Pruning {
 
     }
 
-    public static void handleInput(Location targetLoc, Edge e, List<Edge> edges, Map<Location, CDD> passedPairs, Queue<Location> inconsistentQueue ) { // treating inputs now
+    public static void handleInput(Location targetLoc, Edge e, Automaton aut, Map<Location, CDD> passedPairs, Queue<Location> inconsistentQueue ) { // treating inputs now
 
         if (printComments)
             Log.debug("Handling an input to inc.");
@@ -324,9 +324,9 @@ public class Pruning {
             // d) not lead to the inconsistent part of a state itself
 
             // we keep a copy of the inc. Federation, so we can do comparison to it later
-            CDD save =  new CDD(incCDD.getPointer());
+            CDD save =  incCDD.hardCopy();
 
-            incCDD= predtOfAllOutputs(e, incCDD, edges);
+            incCDD= predtOfAllOutputs(e, incCDD, aut);
             // for each "good" transition, we remove its zone from the zone leading to inc. via the predt function
 
             // if the bad federation was not restricted via any good transition (i.e., its the same as before)
@@ -346,7 +346,7 @@ public class Pruning {
             processSourceLocation(e,  incCDD, passedPairs, inconsistentQueue);
         }
 
-        removeTransitionIfUnsat(e, incCDD, edges);
+        removeTransitionIfUnsat(e, incCDD, aut);
 
 
     }
@@ -374,7 +374,7 @@ public class Pruning {
         return incCDD;
     }
 
-    public static void removeTransitionIfUnsat(Edge e,  CDD incCDD, List<Edge> edges)
+    public static void removeTransitionIfUnsat(Edge e,  CDD incCDD, Automaton aut)
     {
         if (printComments)
             Log.debug("Removing transition if its not satisfiable anymore");
@@ -404,7 +404,7 @@ public class Pruning {
 
 
         if (!testForSatEdgeCDD.isNotFalse()) {
-            edges.remove(e);
+            aut.removeEdge(e);
         }
         if (printComments)
             Log.debug("... done");
@@ -455,10 +455,10 @@ public class Pruning {
     }
 
 
-    public static CDD predtOfAllOutputs(Edge e, CDD incCDD, List<Edge> edges)
+    public static CDD predtOfAllOutputs(Edge e, CDD incCDD, Automaton aut)
     {
         CDD allGoodCDDs = CDD.cddFalse();
-        for (Edge otherEdge : edges.stream().filter(o -> o.getSource().equals(e.getSource()) && !o.isInput()).collect(Collectors.toList())) {
+        for (Edge otherEdge : aut.getEdgesFromLocation(e.getSource()).stream().filter(o -> !o.isInput()).collect(Collectors.toList())) {
             if (printComments)
                 Log.debug("found an output that might lead us to good");
 
@@ -10,6 +10,8 @@ public class Quotient extends AggregatedTransitionSystem {
     private final Set<Channel> inputs, outputs;
     private final Channel newChan;
     private final Clock newClock;
+    // The alphabets deciding which rules apply to a channel, computed once instead of for every location and channel
+    private final Alphabet sharedActions, onlySActions, onlyTActions, sharedOutputs;
 
     public Quotient(TransitionSystem t, TransitionSystem s) {
         super(t, s);
@@ -36,6 +38,11 @@ public class Quotient extends AggregatedTransitionSystem {
                 difference(t.getOutputs(), s.getOutputs()),
                 difference(s.getInputs(), t.getInputs())
         );
+
+        sharedActions = s.getActionAlphabet().intersection(t.getActionAlphabet());
+        onlySActions = s.getActionAlphabet().difference(t.getActionAlphabet());
+        onlyTActions = t.getActionAlphabet().difference(s.getActionAlphabet());
+        sharedOutputs = t.getOutputAlphabet().intersection(s.getOutputAlphabet());
     }
 
     public Quotient(Automaton t, Automaton s) {
@@ -55,8 +62,20 @@ public class Quotient extends AggregatedTransitionSystem {
         return t.getName() + "\\\\" + s.getName();
     }
 
+    @Override
+    public Set<Clock> getActiveClocks(Location location) {
+        // The new clock is compared on the moves of the quotient itself rather than on the moves of its systems
+        Set<Clock> activeClocks = super.getActiveClocks(location);
+        activeClocks.add(newClock);
+        return activeClocks;
+    }
+
     @Override
     public List<Move> getNextMoves(Location location, Channel a) {
+        return moveCache.get(location, a, () -> computeQuotientMoves(location, a));
+    }
+
+    private List<Move> computeQuotientMoves(Location location, Channel a) {
         Location univ = Location.createUniversalLocation("universal", 0, 0);
         Location inc = Location.createInconsistentLocation("inconsistent", 0, 0, newClock);
 
@@ -64,7 +83,7 @@ public class Quotient extends AggregatedTransitionSystem {
 
         // Rule 10
         if (location.isInconsistent()) {
-            if (getInputs().contains(a)) {
+            if (getInputAlphabet().contains(a)) {
                 Log.debug("Rule 10");
                 Move newMove = new Move(location, location, new ArrayList<>());
                 newMove.setUpdates(new ArrayList<>(Collections.singletonList(new ClockUpdate(newClock, 0))));
@@ -74,7 +93,7 @@ public class Quotient extends AggregatedTransitionSystem {
 
         // Rule 9
         if (location.isUniversal()) {
-            if (getActions().contains(a)) {
+            if (getActionAlphabet().contains(a)) {
                 Log.debug("Rule 9");
                 Move newMove = new Move(location, location, new ArrayList<>());
                 resultMoves.add(newMove);
@@ -92,7 +111,7 @@ public class Quotient extends AggregatedTransitionSystem {
             List<Move> s_moves = s.getNextMoves(ls, a);
 
             // Rule 1 (cartesian product)
-            if (in(a, intersect(s.getActions(), t.getActions()))) {
+            if (sharedActions.contains(a)) {
                 Log.debug("Rule 1");
                 List<Move> moveProduct = moveProduct(t_moves, s_moves, true, true);
                 for (Move move : moveProduct) {
@@ -102,7 +121,7 @@ public class Quotient extends AggregatedTransitionSystem {
             }
 
             // Rule 2
-            if (in(a, difference(s.getActions(), t.getActions()))) {
+            if (onlySActions.contains(a)) {
                 Log.debug("Rule 2");
                 List<Move> movesLeft = new ArrayList<>();
                 movesLeft.add(new Move(lt, lt, new ArrayList<>()));
@@ -117,7 +136,7 @@ public class Quotient extends AggregatedTransitionSystem {
             // Rule 3
             // Rule 4
             // Rule 5
-            if (in(a, s.getOutputs())) {
+            if (s.getOutputAlphabet().contains(a)) {
                 Log.debug("Rule 345 1");
                 CDD guard_s = CDD.cddFalse();
                 for (Move s_move : s_moves) {
@@ -142,7 +161,7 @@ public class Quotient extends AggregatedTransitionSystem {
             }
 
             // Rule 6
-            if (in(a, intersect(t.getOutputs(), s.getOutputs()))) {
+            if (sharedOutputs.contains(a)) {
                 Log.debug("Rule 6");
                 // Take all moves from t in order to gather the guards and negate them.
                 CDD CDDFromMovesFromT = CDD.cddFalse();
@@ -173,7 +192,7 @@ public class Quotient extends AggregatedTransitionSystem {
             }
 
             // Rule 8
-            if (in(a, difference(t.getActions(), s.getActions()))) {
+            if (onlyTActions.contains(a)) {
                 Log.debug("Rule 8");
                 List<Move> movesRight = new ArrayList<>();
                 movesRight.add(new Move(ls, ls, new ArrayList<>()));
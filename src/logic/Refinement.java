@@ -5,6 +5,7 @@ import log.Log;
 import models.*;
 
 import java.util.*;
+import java.util.concurrent.CancellationException;
 import java.util.stream.Collectors;
 
 public class Refinement {
@@ -13,22 +14,74 @@ public class Refinement {
     private final List<BoolVar> allBVs;
 
     private final Map<LocationPair, StatePair> passed;
+    /* The waiting state pairs in order. Subsumed pairs are only removed from their bucket,
+     *   and are skipped when they reach the front instead of being searched for in the whole deque */
     private final Deque<StatePair> waiting;
+    // The waiting state pairs bucketed by their location pair, such that inclusion checks only consider the same locations
+    private final Map<LocationPair, Set<StatePair>> waitingByLocations;
 
     private final Set<Channel> inputs1, inputs2, outputs1, outputs2;
     private GraphNode refGraph;
     private GraphNode currNode;
     private GraphNode supersetNode;
     private HashMap<Clock,Integer> maxBounds;
-    private static boolean RET_REF = false;
+    // Per instance as refinements of independent queries can be checked concurrently
+    private boolean RET_REF = false;
+    /* If true the determinism and consistency of the systems are only checked on the states reached
+     *   by the refinement exploration, such that a violation stops the exploration immediately */
+    private final boolean lazyPreconditions;
+    private final Extrapolation extrapolation;
+    // Whether the full consistency check of the left and right system has passed
+    private boolean leftConsistent, rightConsistent;
     public static int NODE_ID = 0;
     private StringBuilder errMsg = new StringBuilder();
+    // The number of state pairs taken from waiting, and the number removed from waiting as a larger pair was added
+    private long expandedStatePairs, subsumedStatePairs;
 
     public Refinement(TransitionSystem system1, TransitionSystem system2) {
+        this(system1, system2, false);
+    }
+
+    /**
+     * Creates a refinement check of system1 refining system2.
+     * <p>
+     * In the lazy mode the consistency and determinism of the systems are not explored upfront.
+     * Instead, each state pair reached by the exploration is checked for local non-determinism and for a lack of
+     * independent progress, and the first violation, also of the refinement itself, terminates the check.
+     * The local checks only consider the zones of the refinement, which can be smaller than the zones of
+     * the system alone, so a suspected violation is confirmed with the full check of the system.
+     * As consistency is a property of every reachable state, and not only those reached by the refinement,
+     * the full check is also performed once the exploration has shown that the refinement holds.
+     * For this reason the lazy mode gives the same results as the eager mode, but failing checks return sooner.
+     * A passing check does the local checks in addition to the full check, and is therefore slower than in the eager mode.
+     * The lazy mode is only used when requested, e.g. by a <code>lazy-preconditions</code> refinement query.
+     * </p>
+     *
+     * @param system1 The refining system.
+     * @param system2 The refined system.
+     * @param lazyPreconditions Whether the consistency and determinism should be checked lazily.
+     */
+    public Refinement(TransitionSystem system1, TransitionSystem system2, boolean lazyPreconditions) {
+        this(system1, system2, lazyPreconditions, Extrapolation.MAX_BOUNDS);
+    }
+
+    /**
+     * Creates a refinement check of system1 refining system2.
+     *
+     * @param system1 The refining system.
+     * @param system2 The refined system.
+     * @param lazyPreconditions Whether the consistency and determinism should be checked lazily.
+     * @param extrapolation The extrapolation of the reached state pairs.
+     * @see #Refinement(TransitionSystem, TransitionSystem, boolean)
+     */
+    public Refinement(TransitionSystem system1, TransitionSystem system2, boolean lazyPreconditions, Extrapolation extrapolation) {
         this.ts1 = system1;
         this.ts2 = system2;
+        this.lazyPreconditions = lazyPreconditions;
+        this.extrapolation = extrapolation;
         this.waiting = new ArrayDeque<>();
         this.passed = new HashMap<>();
+        this.waitingByLocations = new HashMap<>();
 
         allClocks = new ArrayList<>(ts1.getClocks());
         allClocks.addAll(ts2.getClocks());
@@ -52,20 +105,44 @@ public class Refinement {
 
     public boolean check(boolean ret_ref) { // TODO: test this.
         Refinement.NODE_ID = 0;
-        Refinement.RET_REF = ret_ref;
+        this.RET_REF = ret_ref;
         return checkRef();
     }
 
     public boolean check() {
-        Refinement.RET_REF = false;
+        this.RET_REF = false;
         return checkRef();
     }
 
+    /**
+     * Returns the number of state pairs which have been explored by the last check.
+     */
+    public long getExpandedStatePairs() {
+        return expandedStatePairs;
+    }
+
+    /**
+     * Returns the number of waiting state pairs which were not explored by the last check,
+     * as a state pair including them was added to waiting at the same location pair.
+     */
+    public long getSubsumedStatePairs() {
+        return subsumedStatePairs;
+    }
+
     public GraphNode getTree() {
         return refGraph;
     }
 
     public boolean checkPreconditions() {
+        boolean precondMet = checkSignatures();
+
+        if (!checkConsistency()) {
+            precondMet = false;
+        }
+        return precondMet;
+    }
+
+    private boolean checkSignatures() {
         boolean precondMet = true;
 
         // check for duplicate automata
@@ -86,14 +163,14 @@ public class Refinement {
         // with the exception that the left side is allowed to have more outputs
 
         // inputs on the right must contain all inputs on the left side
-        if (!inputs2.containsAll(inputs1)) {
+        if (!ts2.getInputAlphabet().containsAll(ts1.getInputAlphabet())) {
             precondMet = false;
             errMsg.append(inputs2 + " <--> " + inputs1 + "\n");
             errMsg.append("Inputs on the left side are not included as inputs on the right side.\n");
         }
 
         // the left side must contain all outputs from the right side
-        if (!outputs1.containsAll(outputs2)) {
+        if (!ts1.getOutputAlphabet().containsAll(ts2.getOutputAlphabet())) {
             precondMet = false;
             errMsg.append("Not all outputs of the right side are present on the left side.\n");
         }
@@ -102,42 +179,72 @@ public class Refinement {
 
         // inputs on one side cannot be outputs on the other and vice versa
 
-        Set<Channel> output1Copy = new HashSet<>(outputs1);
-        output1Copy.retainAll(inputs2);
-        if (!output1Copy.isEmpty()){
+        if (ts1.getOutputAlphabet().intersects(ts2.getInputAlphabet())){
             precondMet = false;
             errMsg.append("There is an output of left side that is an input on the right.\n");
         }
 
-        Set<Channel> output2Copy = new HashSet<>(outputs2);
-        output2Copy.retainAll(inputs1);
-        if (!output2Copy.isEmpty()){
+        if (ts2.getOutputAlphabet().intersects(ts1.getInputAlphabet())){
             precondMet = false;
             errMsg.append("There is an output of right side that is an input on the left.\n");
         }
+        return precondMet;
+    }
 
+    private boolean checkConsistency() {
+        boolean precondMet = true;
 
-        if (!ts1.isLeastConsistent()) {
+        if (!leftConsistent && !isConsistent(ts1)) {
             precondMet = false;
-            errMsg.append(ts1.getLastErr());
         }
 
-        if (!ts2.isLeastConsistent()) {
+        if (!rightConsistent && !isConsistent(ts2)) {
             precondMet = false;
-            errMsg.append(ts2.getLastErr());
         }
         return precondMet;
     }
 
+    private boolean isConsistent(TransitionSystem system) {
+        if (!system.isLeastConsistent()) {
+            errMsg.append(system.getLastErr());
+            return false;
+        }
+
+        if (system == ts1) {
+            leftConsistent = true;
+        } else {
+            rightConsistent = true;
+        }
+        return true;
+    }
+
     public boolean checkRef() {
         // one or more of the preconditions failed, so fail refinement
-        if (!checkPreconditions())
+        if (lazyPreconditions ? !checkSignatures() : !checkPreconditions())
             return false;
 
         boolean initialisedCdd = CDD.tryInit(allClocks, allBVs);
 
+        boolean refines;
+        // The states of the refinement graph are returned to the caller, so they cannot be released with the scope
+        try (CddScope scope = RET_REF ? null : new CddScope()) {
+            refines = explore();
+        }
+
+        if (initialisedCdd) {
+            CDD.done();
+        }
+
+        // The exploration has only checked the states it reached, the remaining states must still be consistent
+        if (refines && lazyPreconditions) {
+            refines = checkConsistency();
+        }
+        return refines;
+    }
+
+    private boolean explore() {
         // the first states we look at are the initial ones
-        waiting.push(getInitialStatePair());
+        addToWaiting(getInitialStatePair());
 
         if (RET_REF) {
             refGraph = new GraphNode(waiting.getFirst());
@@ -145,8 +252,14 @@ public class Refinement {
         }
 
 
-        while (!waiting.isEmpty()) {
-            StatePair curr = waiting.pop();
+        while (hasWaiting()) {
+            // The check is aborted when another query of the same request has failed
+            if (Thread.currentThread().isInterrupted()) {
+                throw new CancellationException("The refinement check was aborted");
+            }
+
+            StatePair curr = removeFromWaiting();
+            expandedStatePairs++;
             if (RET_REF) {
                 currNode.wasLast=false;
                 currNode = curr.getNode();
@@ -159,7 +272,7 @@ public class Refinement {
             State newState1 = new State(left);
             State newState2 = new State(right);
             // mark the pair of states as visited
-            LocationPair locPair = new LocationPair(left.getLocation(), right.getLocation());
+            LocationPair locPair = getLocationPair(curr);
             StatePair pair = new StatePair(newState1, newState2, currNode);
 /*
             if (!passed.containsKey(locPair)) {
@@ -180,13 +293,15 @@ public class Refinement {
 
             // assert(passedContainsStatePair(curr));
             Log.debug("Picked state pair " + pair.prettyPrint());
+            if (isInconsistentAt(ts1, left) || isInconsistentAt(ts2, right)) {
+                Log.info("Consistency violation");
+                return false;
+            }
+
             // check that for every delay in TS 1 there is a corresponding delay in TS
             boolean holds0 = checkDelay(left, right);
             if (!holds0) {
                 Log.info("Delay violation");
-                if (initialisedCdd) {
-                    CDD.done();
-                }
                 return false;
             }
 
@@ -195,9 +310,6 @@ public class Refinement {
             if (!holds1) {
 
                 Log.info("Output violation");
-                if (initialisedCdd) {
-                    CDD.done();
-                }
                 return false;
             }
 
@@ -206,17 +318,11 @@ public class Refinement {
             if (!holds2) {
                 //assert(false); // assuming everything is input enabled
                 Log.info("Input violation");
-                if (initialisedCdd) {
-                    CDD.done();
-                }
                 return false;
             }
         }
 
         // if we got here it means refinement property holds
-        if (initialisedCdd) {
-            CDD.done();
-        }
         return true;
     }
 
@@ -230,6 +336,63 @@ public class Refinement {
         return result;
     }
 
+    private boolean isCheckedLazily(TransitionSystem system) {
+        return lazyPreconditions && !(system == ts1 ? leftConsistent : rightConsistent);
+    }
+
+    private boolean isInconsistentAt(TransitionSystem system, State state) {
+        if (!isCheckedLazily(system) || hasIndependentProgress(system, state)) {
+            return false;
+        }
+
+        Log.debug("Suspected inconsistency of " + system.getName() + " in " + state.getLocation().getName());
+        return !isConsistent(system);
+    }
+
+    private boolean isNonDeterministicAt(TransitionSystem system, List<Transition> transitions) {
+        if (!isCheckedLazily(system) || !hasOverlappingMoves(system, transitions)) {
+            return false;
+        }
+
+        Log.debug("Suspected non-determinism of " + system.getName());
+        return !isConsistent(system);
+    }
+
+    /**
+     * Returns false if the state can neither delay indefinitely nor output within its location invariant.
+     * Such a state is inconsistent regardless of the rest of the system, whereas a true result does not
+     * guarantee consistency as the targets of the outputs are not considered.
+     */
+    private boolean hasIndependentProgress(TransitionSystem system, State state) {
+        // The locations created by the quotient are not checked by the consistency of the underlying systems
+        if (state.getLocation().isInconsistent() || state.getLocation().isUniversal()) {
+            return true;
+        }
+
+        // The zone of the pair is also bounded by the invariant of the other side, which must not limit the delay
+        CDD delayed = state.getInvariant().hardCopy().delay().conjunction(state.getLocationInvariant());
+        if (delayed.canDelayIndefinitely()) {
+            return true;
+        }
+
+        State delayedState = new State(state.getLocation(), delayed);
+        for (Channel output : system.getOutputs()) {
+            if (!system.getNextTransitions(delayedState, output, allClocks).isEmpty()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean hasOverlappingMoves(TransitionSystem system, List<Transition> transitions) {
+        // The transitions to the locations created by the quotient are not checked by the determinism of the underlying systems
+        List<Transition> checked = transitions.stream()
+                .filter(transition -> !transition.getTarget().getLocation().isInconsistent() &&
+                        !transition.getTarget().getLocation().isUniversal())
+                .collect(Collectors.toList());
+        return system.checkMovesOverlap(checked);
+    }
+
     private boolean checkDelay(State leftState, State rightState)
             throws IllegalArgumentException, NullPointerException {
         if (!leftState.getInvariant().equiv(rightState.getInvariant())) {
@@ -270,8 +433,8 @@ public class Refinement {
             return null;
         }
 
-        leaderTarget.applyResets(leaderTransition.getUpdates());
-        leaderTarget.applyResets(followerTransition.getUpdates());
+        leaderTarget.applyResets(leaderTransition.getMove().getCompiledUpdates());
+        leaderTarget.applyResets(followerTransition.getMove().getCompiledUpdates());
 
         // check target invariants to see if transitions are actually enabled
         CDD leaderTargetInvariant = leaderTransition.getTarget().getLocationInvariant();
@@ -294,7 +457,23 @@ public class Refinement {
         // The exact same check will catch it but in TransitionSystem instead
         //if (!leaderTarget.getInvZone().isValid()) return null;
 
-        leaderTarget.extrapolateMaxBounds(maxBounds,allClocks);
+        // Clocks which are inactive in both target locations are reset before they are compared again
+        Set<Clock> activeClocks = ts1.getActiveClocks(leaderTransition.getTarget().getLocation());
+        activeClocks.addAll(ts2.getActiveClocks(followerTransition.getTarget().getLocation()));
+        leaderTarget.freeInactiveClocks(activeClocks, allClocks);
+
+        if (extrapolation == Extrapolation.LOCAL_MAX_BOUNDS) {
+            /* LU abstraction only preserves reachability, whereas refinement compares the guards of both systems
+             *   enabled by the same valuations. For this reason the local bounds are only used as max bounds,
+             *   which only merges valuations that agree on every constraint compared before the clock is reset,
+             *   and thereby preserves the verdict like the global max bounds. */
+            // The leader is always the transition of the left system and the follower of the right system
+            LUBounds bounds = ts1.getLUBounds(leaderTransition.getTarget().getLocation())
+                    .merge(ts2.getLUBounds(followerTransition.getTarget().getLocation()));
+            leaderTarget.extrapolateMaxBounds(bounds.getMaxBounds(), allClocks);
+        } else {
+            leaderTarget.extrapolateMaxBounds(maxBounds,allClocks);
+        }
         // if ( leaderTarget.getInvarCDD().equiv(CDD.getUnrestrainedCDD()))
         //     assert(false);
         State target2 = new State(followerTransition.getTarget().getLocation(), leaderTarget.getInvariant());
@@ -352,7 +531,7 @@ public class Refinement {
                                 Log.debug("trans lead to " + pair.getLeft().getLocation().getName() + " and "  + pair.getRight().getLocation().getName());
 
                             }
-                            waiting.add(pair);
+                            addToWaiting(pair);
                             if (RET_REF) {
                                 currNode.constructSuccessor(pair, transition1.getEdges(), transition2.getEdges());
                             }
@@ -384,9 +563,12 @@ public class Refinement {
                     : ts1.getNextTransitions(state1, action, allClocks);
 
             if (!leaderTransitions.isEmpty()) {
+                if (isNonDeterministicAt(isInput ? ts2 : ts1, leaderTransitions)) {
+                    return false;
+                }
 
                 List<Transition> followerTransitions;
-                Set<Channel> toCheck = isInput ? inputs1 : outputs2;
+                Alphabet toCheck = isInput ? ts1.getInputAlphabet() : ts2.getOutputAlphabet();
                 if (toCheck.contains(action)) {
                     followerTransitions = isInput ? ts1.getNextTransitions(state1, action, allClocks)
                             : ts2.getNextTransitions(state2, action, allClocks);
@@ -396,6 +578,10 @@ public class Refinement {
                         Log.debug("followerTransitions empty");
                         return false;
                     }
+
+                    if (isNonDeterministicAt(isInput ? ts1 : ts2, followerTransitions)) {
+                        return false;
+                    }
                 } else {
                     // if action is missing in TS1 (for inputs) or in TS2 (for outputs), add a self loop for that action
                     followerTransitions = new ArrayList<>();
@@ -446,7 +632,7 @@ public class Refinement {
     }
 
     private boolean passedContainsStatePair(StatePair pair) {
-        LocationPair locPair = new LocationPair(pair.getLeft().getLocation(), pair.getRight().getLocation());
+        LocationPair locPair = getLocationPair(pair);
         if (passed.containsKey(locPair)) {
             if (pair.getRight().getInvariant().isSubset(passed.get(locPair).getRight().getInvariant()))
                 return true;
@@ -462,38 +648,99 @@ public class Refinement {
     }
 
     private boolean waitingContainsStatePair(StatePair pair) {
-        return listContainsStatePair(pair, waiting);
+        Set<StatePair> bucket = waitingByLocations.get(getLocationPair(pair));
+        if (bucket == null) {
+            return false;
+        }
+
+        return listContainsStatePair(pair, new ArrayList<>(bucket));
     }
 
-    private boolean listContainsStatePair(StatePair pair, Iterable<StatePair> pairs) {
+    private boolean listContainsStatePair(StatePair pair, List<StatePair> pairs) {
         State currLeft = pair.getLeft();
         State currRight = pair.getRight();
 
+        // All pairs are expected to have the same locations as the provided pair
+        List<CDD> rightInvariants = pairs.stream()
+                .map(state -> state.getRight().getInvariant())
+                .collect(Collectors.toList());
+        int from = 0;
+        while (from < pairs.size()) {
+            // check for zone inclusion of the right states in one native call, and then of the left state
+            int index = currRight.getInvariant().indexOfSuperset(rightInvariants.subList(from, pairs.size()));
+            if (index < 0) {
+                return false;
+            }
 
+            StatePair state = pairs.get(from + index);
+            if (currLeft.getInvariant().isSubset(state.getLeft().getInvariant())) {
+                supersetNode = state.getNode();
+                return true;
+            }
+            from += index + 1;
+        }
 
+        return false;
+    }
 
-        for (StatePair state : pairs) {
-            // check for zone inclusion
-            State passedLeft = state.getLeft();
-            State passedRight = state.getRight();
+    private void addToWaiting(StatePair pair) {
+        Set<StatePair> bucket = waitingByLocations.computeIfAbsent(getLocationPair(pair), key -> new LinkedHashSet<>());
+        // The nodes of the refinement graph must all be explored, so waiting pairs are only subsumed without the graph
+        if (!RET_REF) {
+            removeSubsumedFromWaiting(pair, bucket);
+        }
 
-            if (passedLeft.getLocation().equals(currLeft.getLocation()) &&
-                    passedRight.getLocation().equals(currRight.getLocation())) {
-                if (currLeft.getInvariant().isSubset(passedLeft.getInvariant()) &&
-                        currRight.getInvariant().isSubset(passedRight.getInvariant())) {
-                    supersetNode = state.getNode();
-                    return true;
-                }
-                // if (currRight.getCDD().toFederation().isSubset(passedRight.getCDD().toFederation()))
-                // {
-                //     assert(false);
-                // }
+        if (bucket.add(pair)) {
+            waiting.add(pair);
+        }
+    }
+
+    /**
+     * Removes the waiting state pairs of the bucket which are included in the state pair,
+     * as exploring the state pair also explores every state pair included in it.
+     * The removed pairs are left in the deque and skipped by {@link #hasWaiting()}.
+     */
+    private void removeSubsumedFromWaiting(StatePair pair, Set<StatePair> bucket) {
+        Iterator<StatePair> iterator = bucket.iterator();
+        while (iterator.hasNext()) {
+            StatePair waitingPair = iterator.next();
+            if (waitingPair.getLeft().getInvariant().isSubset(pair.getLeft().getInvariant()) &&
+                    waitingPair.getRight().getInvariant().isSubset(pair.getRight().getInvariant())) {
+                iterator.remove();
+                subsumedStatePairs++;
             }
         }
+    }
 
+    /**
+     * Returns whether a state pair is waiting, skipping the subsumed pairs at the front of the deque.
+     */
+    private boolean hasWaiting() {
+        while (!waiting.isEmpty()) {
+            Set<StatePair> bucket = waitingByLocations.get(getLocationPair(waiting.peek()));
+            if (bucket != null && bucket.contains(waiting.peek())) {
+                return true;
+            }
+            waiting.pop();
+        }
         return false;
     }
 
+    private StatePair removeFromWaiting() {
+        StatePair pair = waiting.pop();
+        LocationPair locPair = getLocationPair(pair);
+        Set<StatePair> bucket = waitingByLocations.get(locPair);
+        bucket.remove(pair);
+        if (bucket.isEmpty()) {
+            waitingByLocations.remove(locPair);
+        }
+        return pair;
+    }
+
+    private static LocationPair getLocationPair(StatePair pair) {
+        return new LocationPair(pair.getLeft().getLocation(), pair.getRight().getLocation());
+    }
+
     public StatePair getInitialStatePair() {
         State left = ts1.getInitialState( ts2.getInitialLocation().getInvariantCdd());
         State right = ts2.getInitialState(ts1.getInitialLocation().getInvariantCdd());
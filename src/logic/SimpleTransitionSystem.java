@@ -12,8 +12,7 @@ public class SimpleTransitionSystem extends TransitionSystem{
     private boolean printComments = false;
 
     private final Automaton automaton;
-    private Deque<State> waiting;
-    private List<State> passed;
+    private PassedWaitingList passedWaiting;
     private HashMap<Clock,Integer> maxBounds;
 
     public SimpleTransitionSystem(Automaton automaton) {
@@ -21,8 +20,7 @@ public class SimpleTransitionSystem extends TransitionSystem{
         clocks.addAll(automaton.getClocks());
         BVs.addAll(automaton.getBVs());
 
-        this.waiting = new ArrayDeque<>();
-        this.passed = new ArrayList<>();
+        this.passedWaiting = new PassedWaitingList();
         setMaxBounds();
     }
 
@@ -63,22 +61,31 @@ public class SimpleTransitionSystem extends TransitionSystem{
         return maxBounds;
     }
 
+    @Override
+    public LUBounds getLUBounds(Location location) {
+        return automaton.getLUBounds(location);
+    }
+
+    @Override
+    public Set<Clock> getActiveClocks(Location location) {
+        return automaton.getActiveClocks(location);
+    }
+
     // Checks if automaton is deterministic
     public boolean isDeterministicHelper() {
 
         Set<Channel> actions = getActions();
 
-        waiting = new ArrayDeque<>();
-        passed = new ArrayList<>();
-        waiting.add(getInitialState());
+        passedWaiting = new PassedWaitingList();
+        passedWaiting.addToWaiting(getInitialState());
 
-        while (!waiting.isEmpty()) {
-            State currState = new State(waiting.pop());
+        while (passedWaiting.hasWaiting()) {
+            State currState = new State(passedWaiting.removeFromWaiting());
             State toStore = new State(currState);
 
 
             toStore.extrapolateMaxBounds(this.getMaxBounds(),clocks.getItems());
-            passed.add(toStore);
+            passedWaiting.addToPassed(toStore);
 
             for (Channel action : actions) {
 
@@ -96,60 +103,17 @@ public class SimpleTransitionSystem extends TransitionSystem{
                         filter(s -> !passedContainsState(s) && !waitingContainsState(s)).collect(Collectors.toList()); // TODO I added waitingConstainsState... Okay??
                 toAdd.forEach(e->e.extrapolateMaxBounds(getMaxBounds(),clocks.getItems()));
 
-                waiting.addAll(toAdd);
+                toAdd.forEach(passedWaiting::addToWaiting);
             }
         }
 
         return true;
     }
 
-    // Check if zones of moves for the same action overlap, that is if there is non-determinism
-    public boolean checkMovesOverlap(List<Transition> trans) {
-        if (trans.size() < 2) return false;
-        Log.debug("check moves overlap -------------------------------------------------------------------");
-        for (int i = 0; i < trans.size(); i++) {
-            for (int j = i + 1; j < trans.size(); j++) {
-                if (trans.get(i).getTarget().getLocation().equals(trans.get(j).getTarget().getLocation())
-                        && trans.get(i).getEdges().get(0).hasEqualUpdates(trans.get(j).getEdges().get(0)))
-                    continue;
-
-                State state1 = new State(trans.get(i).getSource());
-                State state2 = new State(trans.get(j).getSource());
-
-                // TODO: do a transitionBack here, in case the target invariant was not included into the guards
-
-                state1.applyGuards(trans.get(i).getGuardCDD());
-                state2.applyGuards(trans.get(j).getGuardCDD());
-
-
-
-                if (state1.getInvariant().isNotFalse() && state2.getInvariant().isNotFalse()) {
-                    if(state1.getInvariant().intersects(state2.getInvariant())) {
-                        Log.debug(trans.get(i).getGuardCDD().getGuard(clocks.getItems()));
-                        Log.debug(trans.get(j).getGuardCDD().getGuard(clocks.getItems()));
-                        Log.debug(trans.get(0).getEdges().get(0).getChannel());
-                        Log.debug(trans.get(0).getEdges().get(0));
-                        Log.debug(trans.get(1).getEdges().get(0));
-                        Log.debug(state1.getInvariant().getGuard(clocks.getItems()));
-                        Log.debug(state2.getInvariant().getGuard(clocks.getItems()));
-                        trans.get(j).getGuardCDD().printDot();
-                        Log.debug(trans.get(i).getEdges().get(0).getGuardCDD().getGuard(clocks.getItems()));
-                        Log.debug(trans.get(j).getEdges().get(0).getGuardCDD().getGuard(clocks.getItems()));
-                        Log.debug("they intersect??!");
-                        return true;
-                    }
-                }
-
-            }
-        }
-        return false;
-    }
-
     public boolean isConsistentHelper(boolean canPrune) {
         //if (!isDeterministic()) // TODO: this was commented out, I added it again
         //    return false;
-        passed = new ArrayList<>();
-        waiting = new ArrayDeque<>();
+        passedWaiting = new PassedWaitingList();
         boolean result = checkConsistency(getInitialState(), getInputs(), getOutputs(), canPrune);
         return result;
     }
@@ -165,7 +129,7 @@ public class SimpleTransitionSystem extends TransitionSystem{
         Log.debug(getMaxBounds());
         //if (passedContainsState(toStore))
         //    return true;
-        passed.add(toStore);
+        passedWaiting.addToPassed(toStore);
         // Check if the target of every outgoing input edge ensures independent progress
         for (Channel channel : inputs) {
             List<Transition> tempTrans = getNextTransitions(currState, channel);
@@ -217,17 +181,16 @@ public class SimpleTransitionSystem extends TransitionSystem{
         Set<Channel> outputs = getOutputs();
         Set<Channel> actions = getActions();
 
-        waiting = new ArrayDeque<>();
-        passed = new ArrayList<>();
-        waiting.add(getInitialState());
+        passedWaiting = new PassedWaitingList();
+        passedWaiting.addToWaiting(getInitialState());
 
-        while (!waiting.isEmpty()) {
-            State currState = new State(waiting.pop());
+        while (passedWaiting.hasWaiting()) {
+            State currState = new State(passedWaiting.removeFromWaiting());
 
             State toStore = new State(currState);
 
             toStore.extrapolateMaxBounds(getMaxBounds(),clocks.getItems());
-            passed.add(toStore);
+            passedWaiting.addToPassed(toStore);
 
 
             for (Channel action : actions){
@@ -243,7 +206,7 @@ public class SimpleTransitionSystem extends TransitionSystem{
 
                 toAdd.forEach(s -> s.extrapolateMaxBounds(getMaxBounds(),clocks.getItems()));
 
-                waiting.addAll(toAdd);
+                toAdd.forEach(passedWaiting::addToWaiting);
             }
         }
 
@@ -267,32 +230,14 @@ public class SimpleTransitionSystem extends TransitionSystem{
         State state = new State(state1);
         state.extrapolateMaxBounds(maxBounds, clocks.getItems());
 
-
-        for (State passedState : passed) {
-            Log.debug(" " + passedState.getLocation() + " " + passedState.getInvariant().getGuard(clocks.getItems()));
-            if (state.getLocation().equals(passedState.getLocation()) &&
-                    state.getInvariant().isSubset((passedState.getInvariant()))) {
-                return true;
-            }
-        }
-
-
-        return false;
+        return passedWaiting.passedContains(state);
     }
 
     private boolean waitingContainsState(State state1) {
         State state = new State(state1);
         state.extrapolateMaxBounds(maxBounds, clocks.getItems());
 
-        for (State passedState : waiting) {
-            // check for zone inclusion
-            if (state.getLocation().equals(passedState.getLocation()) &&
-                    state.getInvariant().isSubset(passedState.getInvariant())) {
-                return true;
-            }
-        }
-
-        return false;
+        return passedWaiting.waitingContains(state);
     }
 
     public List<Transition> getNextTransitions(State currentState, Channel channel, List<Clock> allClocks) {
@@ -336,17 +281,16 @@ public class SimpleTransitionSystem extends TransitionSystem{
         // the set to store all locations we met during the exploration. All others will be removed afterwards.
         Set<Location> metLocations = new HashSet<Location>();
 
-        waiting = new ArrayDeque<>();
-        passed = new ArrayList<>();
-        waiting.add(getInitialState());
+        passedWaiting = new PassedWaitingList();
+        passedWaiting.addToWaiting(getInitialState());
 
         List<Edge> passedEdges = new ArrayList<Edge>();
 
 
         // explore until waiting is empty, and add all locations that ever are in waiting to metLocations
-        while (!waiting.isEmpty()) {
-            State currState = new State(waiting.pop());
-            passed.add(new State(currState));
+        while (passedWaiting.hasWaiting()) {
+            State currState = new State(passedWaiting.removeFromWaiting());
+            passedWaiting.addToPassed(new State(currState));
             metLocations.add(currState.getLocation());
             for (Channel action : actions){
                 List<Transition> tempTrans = getNextTransitions(currState, action);
@@ -357,7 +301,7 @@ public class SimpleTransitionSystem extends TransitionSystem{
                 }
                 List<State> toAdd = tempTrans.stream().map(Transition::getTarget).
                         filter(s -> !passedContainsState(s)).collect(Collectors.toList());
-                waiting.addAll(toAdd);
+                toAdd.forEach(passedWaiting::addToWaiting);
             }
         }
 
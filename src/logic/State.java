@@ -1,11 +1,12 @@
 package logic;
 
-import lib.DBMLib;
 import log.Log;
 import models.*;
 
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 public class State {
     private final Location location;
@@ -13,13 +14,13 @@ public class State {
 
     public State(Location location, CDD invarCDD) {
         this.location = location;
-        this.invarCDD = new CDD(invarCDD.getPointer());
+        this.invarCDD = invarCDD.hardCopy();
 
     }
 
     public State(State oldState) {
         this.location = oldState.getLocation();
-        this.invarCDD = new CDD(oldState.getInvariant().getPointer());
+        this.invarCDD = oldState.getInvariant().hardCopy();
     }
 
     public Location getLocation() {
@@ -61,61 +62,62 @@ public class State {
         invarCDD=invarCDD.applyReset(resets);
     }
 
+    public void applyResets(CompiledUpdates resets) {
+        invarCDD=invarCDD.applyReset(resets);
+    }
+
+    /**
+     * Frees the relevant clocks which are not active in the location of this state,
+     * such that states which only differ in the values of inactive clocks are represented by the same zones.
+     *
+     * @param activeClocks The clocks which are active in the location of this state.
+     * @param relevantClocks The clocks which can be freed.
+     */
+    public void freeInactiveClocks(Set<Clock> activeClocks, List<Clock> relevantClocks) {
+        if (invarCDD.isTerminal() || invarCDD.isBDD())
+            return;
+
+        int[] inactiveClocks = relevantClocks.stream()
+                .filter(clock -> !activeClocks.contains(clock))
+                .mapToInt(CDD::indexOf)
+                .filter(index -> index > 0)
+                .toArray();
+        if (inactiveClocks.length == 0)
+            return;
+
+        // Quantifying the clocks away also removes their lower bound of 0
+        invarCDD = invarCDD.exist(new int[0], inactiveClocks).removeNegative();
+    }
+
     public void extrapolateMaxBounds(HashMap<Clock,Integer> maxBounds, List<Clock> relevantClocks){
         if (invarCDD.isTrue())
             return;
-        CDD bcddLeftToAnalyse = new CDD(invarCDD.getPointer());
-        CDD resCDD = CDD.cddFalse();
 
-        int[] bounds = new int[CDD.numClocks];
-        int counter =1;
-        bounds[0] = 0; // special clock
-        for (Clock clk :CDD.getClocks())
-        {
-            if (relevantClocks.contains(clk) )
-            {
-                if (!maxBounds.containsKey(clk))
-                {
-                    // assert false; // TODO: should we really get into here??
-                    bounds[counter]=0;
-                }
-                else
-                    bounds[counter] =maxBounds.get(clk);
-            }
-            else
-            {
-                bounds[counter] = 0;
+        invarCDD = invarCDD.extrapolateMaxBounds(getBounds(maxBounds, relevantClocks));
+    }
+
+    /**
+     * Returns the bounds of the clocks at their DBM index. Clocks which are not relevant or have no bound are bounded by 0.
+     */
+    private static int[] getBounds(Map<Clock, Integer> bounds, List<Clock> relevantClocks) {
+        int[] result = new int[CDD.getNumClocks()];
+        int counter = 1;
+        result[0] = 0; // special clock
+        for (Clock clk : CDD.getClocks()) {
+            if (relevantClocks.contains(clk) && bounds.containsKey(clk)) {
+                result[counter] = bounds.get(clk);
+            } else {
+                result[counter] = 0;
             }
             counter++;
         }
-
-
-        if (bcddLeftToAnalyse.isBDD())
-        {
-            return;
-        }
-        else
-            while (!bcddLeftToAnalyse.isTerminal())
-            {
-                CddExtractionResult extractResult = bcddLeftToAnalyse.removeNegative().reduce().extract();
-                bcddLeftToAnalyse = extractResult.getCddPart().removeNegative().reduce();
-
-                Zone z = new Zone(extractResult.getDbm());
-                CDD bddPart = extractResult.getBddPart();
-                Zone newZone = new Zone(DBMLib.dbm_close(z.getDbm(),z.getDimension()));
-                newZone.extrapolateMaxBounds(bounds);
-                CDD extrapolatedDBMCDD = CDD.createFromDbm(newZone.getDbm(),CDD.numClocks);
-                CDD extrapolatedCDD = bddPart.conjunction(extrapolatedDBMCDD);
-                resCDD = resCDD.disjunction(extrapolatedCDD);
-            }
-
-        invarCDD = resCDD;
+        return result;
     }
 
     public void extrapolateMaxBoundsDiag(HashMap<Clock,Integer> maxBounds, List<Clock> relevantClocks){
         if (invarCDD.isTrue())
             return;
-        CDD copy = new CDD(invarCDD.getPointer());
+        CDD copy = invarCDD.hardCopy();
         CDD resCDD = CDD.cddFalse();
         boolean print = false;
         if (copy.toString().contains("30"))
@@ -129,15 +131,14 @@ public class State {
             return;
         }
         else
-            while (!copy.isTerminal())
+        {
+            CddZones zones = copy.getZones();
+            for (int index = 0; index < zones.size(); index++)
             {
-                CddExtractionResult extractResult = copy.reduce().removeNegative().extract();
-                copy = extractResult.getCddPart().removeNegative().reduce();
+                Zone z = zones.getZone(index);
+                CDD bddPart = zones.getBddPart(index);
 
-                Zone z = new Zone(extractResult.getDbm());
-                CDD bddPart = extractResult.getBddPart();
-
-                int[] bounds = new int[CDD.numClocks];
+                int[] bounds = new int[CDD.getNumClocks()];
                 int counter =1;
                 bounds[0] = 0; // special clock
                 for (Clock clk :CDD.getClocks())
@@ -166,11 +167,12 @@ public class State {
                 }
                 z.extrapolateMaxBoundsDiagonal(bounds);
                 if (print) z.printDbm(true,true);
-                CDD extrapolatedDBMCDD = CDD.createFromDbm(z.getDbm(),CDD.numClocks);
+                CDD extrapolatedDBMCDD = CDD.createFromDbm(z.getDbm(),CDD.getNumClocks());
                 CDD extrapolatedCDD = bddPart.conjunction(extrapolatedDBMCDD);
                 resCDD = resCDD.disjunction(extrapolatedCDD);
 
             }
+        }
         if (print)
             Log.debug(resCDD);
         invarCDD = resCDD;
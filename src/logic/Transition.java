@@ -14,14 +14,14 @@ public  class Transition {
         this.source = source;
         this.target = target;
         this.move = move;
-        this.guardCDD = new CDD(move.getGuardCDD().getPointer());
+        this.guardCDD = move.getGuardCDD().hardCopy();
     }
 
     public Transition(State source, State target, Move move, CDD guardCDD) {
         this.source = source;
         this.target = target;
         this.move = move;
-        this.guardCDD = new CDD(guardCDD.getPointer());
+        this.guardCDD = guardCDD.hardCopy();
     }
 
     // self loop
@@ -32,7 +32,7 @@ public  class Transition {
     // self loop
     public Transition(State state, CDD guardCDD) {
 
-        this(state, state, new Move(state.getLocation(), state.getLocation(), new ArrayList<>()), new CDD(guardCDD.getPointer()));
+        this(state, state, new Move(state.getLocation(), state.getLocation(), new ArrayList<>()), guardCDD.hardCopy());
 
 
 
@@ -54,6 +54,10 @@ public  class Transition {
         return guardCDD;// todo: why does this not work? .conjunction(target.getInvarCDDDirectlyFromInvariants());
     }
 
+    public Move getMove() {
+        return move;
+    }
+
     public List<Edge> getEdges() {
         return move.getEdges();
     }
@@ -1,8 +1,10 @@
 package logic;
 
+import log.Log;
 import models.*;
 
 import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.stream.Collectors;
 
 // parent class for all TS's, so we can use it with regular TS's, composed TS's etc.
@@ -10,6 +12,10 @@ public abstract class TransitionSystem {
     final UniqueNamedContainer<Clock> clocks;
     final UniqueNamedContainer<BoolVar> BVs;
     private StringBuilder lastErr = new StringBuilder();
+    // The alphabets are computed when first used, as the inputs and outputs of a system do not change afterwards
+    private Alphabet inputAlphabet, outputAlphabet, actionAlphabet;
+    // The number of combinations of moves which were not created as their guards could not be satisfied together
+    final LongAdder prunedMoves = new LongAdder();
 
     TransitionSystem() {
         this.clocks = new UniqueNamedContainer<>();
@@ -28,7 +34,7 @@ public abstract class TransitionSystem {
         // Create a CDD for the initial values of the boolean variables
         CDD bdd = CDD.cddTrue();
         for (BoolVar variable : variables) {
-            int level = CDD.bddStartLevel + CDD.indexOf(variable);
+            int level = CDD.getBddStartLevel() + CDD.indexOf(variable);
             bdd = bdd.conjunction(
                     CDD.createBddNode(level, variable.getInitialValue())
             );
@@ -52,7 +58,7 @@ public abstract class TransitionSystem {
     }
 
     public State getInitialState(CDD guard) {
-        State state = getInitialState(CDD.BVs);
+        State state = getInitialState(CDD.getBVs());
         state.applyGuards(guard);
         return state;
     }
@@ -67,6 +73,36 @@ public abstract class TransitionSystem {
         return actions;
     }
 
+    /**
+     * Returns the {@link #getInputs() inputs} as an {@link Alphabet} for membership checks during exploration.
+     */
+    public Alphabet getInputAlphabet() {
+        if (inputAlphabet == null) {
+            inputAlphabet = Alphabet.of(getInputs());
+        }
+        return inputAlphabet;
+    }
+
+    /**
+     * Returns the {@link #getOutputs() outputs} as an {@link Alphabet} for membership checks during exploration.
+     */
+    public Alphabet getOutputAlphabet() {
+        if (outputAlphabet == null) {
+            outputAlphabet = Alphabet.of(getOutputs());
+        }
+        return outputAlphabet;
+    }
+
+    /**
+     * Returns the {@link #getActions() actions} as an {@link Alphabet} for membership checks during exploration.
+     */
+    public Alphabet getActionAlphabet() {
+        if (actionAlphabet == null) {
+            actionAlphabet = getInputAlphabet().union(getOutputAlphabet());
+        }
+        return actionAlphabet;
+    }
+
     public Location getInitialLocation(TransitionSystem[] systems) {
         // build ComplexLocation with initial location from each TransitionSystem
         List<Location> initials = Arrays
@@ -94,7 +130,7 @@ public abstract class TransitionSystem {
         CDD invariant = guardCDD.hardCopy();
 
         invariant = invariant.applyReset(
-                move.getUpdates()
+                move.getCompiledUpdates()
         );
         invariant = invariant.delay();
         invariant = invariant.conjunction(
@@ -152,6 +188,48 @@ public abstract class TransitionSystem {
         return isDeterministic;
     }
 
+    // Check if zones of moves for the same action overlap, that is if there is non-determinism
+    public boolean checkMovesOverlap(List<Transition> trans) {
+        if (trans.size() < 2) return false;
+        Log.debug("check moves overlap -------------------------------------------------------------------");
+        for (int i = 0; i < trans.size(); i++) {
+            for (int j = i + 1; j < trans.size(); j++) {
+                if (trans.get(i).getTarget().getLocation().equals(trans.get(j).getTarget().getLocation())
+                        && trans.get(i).getEdges().get(0).hasEqualUpdates(trans.get(j).getEdges().get(0)))
+                    continue;
+
+                State state1 = new State(trans.get(i).getSource());
+                State state2 = new State(trans.get(j).getSource());
+
+                // TODO: do a transitionBack here, in case the target invariant was not included into the guards
+
+                state1.applyGuards(trans.get(i).getGuardCDD());
+                state2.applyGuards(trans.get(j).getGuardCDD());
+
+
+
+                if (state1.getInvariant().isNotFalse() && state2.getInvariant().isNotFalse()) {
+                    if(state1.getInvariant().intersects(state2.getInvariant())) {
+                        Log.debug(trans.get(i).getGuardCDD().getGuard(clocks.getItems()));
+                        Log.debug(trans.get(j).getGuardCDD().getGuard(clocks.getItems()));
+                        Log.debug(trans.get(0).getEdges().get(0).getChannel());
+                        Log.debug(trans.get(0).getEdges().get(0));
+                        Log.debug(trans.get(1).getEdges().get(0));
+                        Log.debug(state1.getInvariant().getGuard(clocks.getItems()));
+                        Log.debug(state2.getInvariant().getGuard(clocks.getItems()));
+                        trans.get(j).getGuardCDD().printDot();
+                        Log.debug(trans.get(i).getEdges().get(0).getGuardCDD().getGuard(clocks.getItems()));
+                        Log.debug(trans.get(j).getEdges().get(0).getGuardCDD().getGuard(clocks.getItems()));
+                        Log.debug("they intersect??!");
+                        return true;
+                    }
+                }
+
+            }
+        }
+        return false;
+    }
+
     public boolean isLeastConsistent() {
         return isConsistent(true);
     }
@@ -214,11 +292,51 @@ public abstract class TransitionSystem {
         return result;
     }
 
+    /**
+     * Returns the lower and upper bounds of the clocks in a location of this system,
+     * which can be used to extrapolate the states of the location instead of the {@link #getMaxBounds() max bounds}.
+     */
+    public LUBounds getLUBounds(Location location) {
+        return LUBounds.fromMaxBounds(getMaxBounds());
+    }
+
+    /**
+     * Returns the clocks which are active in a location of this system.
+     * The clocks which are not active are reset before they are compared again,
+     * such that they can be freed in the states of the location.
+     *
+     * @see Automaton#getActiveClocks(Location)
+     */
+    public Set<Clock> getActiveClocks(Location location) {
+        return new HashSet<>(getClocks());
+    }
+
+    /**
+     * Returns the number of combinations of moves of this system and the systems it consists of
+     * which were pruned as the conjunction of their guards is unsatisfiable.
+     */
+    public long getPrunedMoves() {
+        return prunedMoves.sum();
+    }
+
+    /**
+     * Returns the cartesian product of the moves, where the guard of each combination is the conjunction
+     * of the guards of the edges of both moves. Combinations whose guards cannot be satisfied together are pruned,
+     * as they can never be taken, such that their locations and moves are not created.
+     * Guards added to the moves after they were created are not part of the product,
+     * the same as when the guard of the product is conjoined from its edges.
+     */
     public List<Move> moveProduct(List<Move> moves1, List<Move> moves2, boolean asNested, boolean removeTargetLocationInvariant) {
         List<Move> moves = new ArrayList<>();
 
         for (Move move1 : moves1) {
             for (Move move2 : moves2) {
+                CDD guard = move1.getEdgeGuardCDD().conjunction(move2.getEdgeGuardCDD());
+                if (guard.isFalse()) {
+                    prunedMoves.increment();
+                    continue;
+                }
+
                 Location q1s = move1.getSource();
                 Location q1t = move1.getTarget();
                 Location q2s = move2.getSource();
@@ -256,7 +374,7 @@ public abstract class TransitionSystem {
                 edges.addAll(move2.getEdges());
 
                 // (q1s, q2s) -...-> (q1t, q2t)
-                Move move = new Move(source, target, edges);
+                Move move = new Move(source, target, edges, guard);
                 moves.add(move);
             }
         }
@@ -11,6 +11,6 @@ public class GetComponentQuery extends Query{
     @Override
     public void handle() {
         TransitionSystem ts = getSystem1();
-        Controller.saveAutomaton(ts.getAutomaton(), getComponentName());
+        Controller.saveSystem(ts, getComponentName());
     }
 }
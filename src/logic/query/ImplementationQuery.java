@@ -15,6 +15,8 @@ public class ImplementationQuery extends Query{
         if(!getResult()){
             addResultString(ts.getLastErr());
         }
-        Controller.saveAutomaton(ts.getAutomaton(), getComponentName());
+        if (isComponentNameGiven()) {
+            Controller.saveSystem(ts, getComponentName());
+        }
     }
 }
@@ -1,5 +1,6 @@
 package logic.query;
 
+import logic.Extrapolation;
 import logic.TransitionSystem;
 
 import java.util.ArrayList;
@@ -12,8 +13,12 @@ public abstract class Query {
     private List<String> resultList;
     private boolean result;
     private String componentName;
+    private boolean isComponentNameGiven;
     private TransitionSystem system1;
     private TransitionSystem system2;
+    private Extrapolation extrapolation;
+    private boolean lazyPreconditions;
+    private long wallTime;
     private static int nextDefaultComponentId = 0;
 
     protected Query(QueryBuilder builder){
@@ -22,10 +27,36 @@ public abstract class Query {
         this.system1 = builder.system1;
         this.system2 = builder.system2;
         this.componentName = builder.componentName;
+        this.isComponentNameGiven = builder.isComponentNameGiven;
+        this.extrapolation = builder.extrapolation;
+        this.lazyPreconditions = builder.lazyPreconditions;
     }
 
     public abstract void handle();
 
+    /**
+     * Returns whether handling this query saves a component which subsequent queries can refer to.
+     * Such a query must be handled after all preceding queries and before any subsequent query is built.
+     * Besides the queries which always save their result, this is any query with a <code>save-as</code> name.
+     */
+    public boolean savesComponent() {
+        return queryType == QueryType.GET_COMPONENT ||
+                queryType == QueryType.BISIM_MINIM ||
+                queryType == QueryType.PRUNE ||
+                isComponentNameGiven;
+    }
+
+    /**
+     * Returns the wall time in nanoseconds it took to handle this query.
+     */
+    public long getWallTime() {
+        return wallTime;
+    }
+
+    public void setWallTime(long wallTime) {
+        this.wallTime = wallTime;
+    }
+
     public void setResult(boolean result) {
         this.result = result;
     }
@@ -46,10 +77,32 @@ public abstract class Query {
         return componentName;
     }
 
+    /**
+     * Returns whether the component name was given with <code>save-as</code>, rather than being a default name.
+     * Queries which only optionally save their system, e.g. consistency queries, only save it if a name was given.
+     */
+    public boolean isComponentNameGiven() {
+        return isComponentNameGiven;
+    }
+
     public String getResultStrings(){
         return String.join("\n", resultList);
     }
 
+    /**
+     * Returns the extrapolation used for the states explored when handling this query.
+     */
+    public Extrapolation getExtrapolation() {
+        return extrapolation;
+    }
+
+    /**
+     * Returns whether the preconditions of a refinement are checked lazily on the reached states.
+     */
+    public boolean isLazyPreconditions() {
+        return lazyPreconditions;
+    }
+
     public TransitionSystem getSystem1() {
         return system1;
     }
@@ -71,8 +124,11 @@ public abstract class Query {
     public static class QueryBuilder{
         private QueryType queryType;
         private String componentName;
+        private boolean isComponentNameGiven = false;
         private TransitionSystem system1;
         private TransitionSystem system2;
+        private Extrapolation extrapolation = Extrapolation.MAX_BOUNDS;
+        private boolean lazyPreconditions = false;
 
         public QueryBuilder queryType(QueryType queryType){
             this.queryType = queryType;
@@ -81,6 +137,7 @@ public abstract class Query {
 
         public QueryBuilder componentName(String componentName){
             this.componentName = componentName;
+            this.isComponentNameGiven = componentName != null;
             return this;
         }
 
@@ -94,6 +151,16 @@ public abstract class Query {
             return this;
         }
 
+        public QueryBuilder extrapolation(Extrapolation extrapolation){
+            this.extrapolation = extrapolation;
+            return this;
+        }
+
+        public QueryBuilder lazyPreconditions(boolean lazyPreconditions){
+            this.lazyPreconditions = lazyPreconditions;
+            return this;
+        }
+
         public Query build(){
             if(componentName == null){
                 setDefaultComponentName();
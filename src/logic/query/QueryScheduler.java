@@ -0,0 +1,110 @@
+package logic.query;
+
+import models.CDD;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+/**
+ * {@link QueryScheduler} handles the queries of a request, either one after another or on a pool of workers.
+ * <p>
+ * With more than one worker, independent queries are handled concurrently.
+ * A query which {@link Query#savesComponent() saves a component} acts as a barrier:
+ * it is handled once all preceding queries are handled and before the subsequent queries are scheduled,
+ * such that the subsequent queries can refer to the saved component.
+ * </p>
+ * <p>
+ * Each worker thread has its own {@link models.CddContext}, so the queries do not share CDD kernel state.
+ * The native kernel is still owned by one context at a time, so a query holds it from {@link CDD#init} until
+ * {@link CDD#done()} and the CDD work of the queries is serialised. More workers do not speed up the checks,
+ * only the parsing and the work outside the kernel of one query overlaps with the checks of the others.
+ * </p>
+ * <p>
+ * The first query to fail aborts the queries still being handled by interrupting their workers,
+ * such that the failure is reported without waiting for the remaining, possibly long, explorations.
+ * </p>
+ */
+public class QueryScheduler implements AutoCloseable {
+    private final ExecutorService executor;
+    private final CompletionService<Void> completion;
+    private final List<Future<Void>> pending = new ArrayList<>();
+
+    public QueryScheduler(int workers) {
+        if (workers < 1) {
+            throw new IllegalArgumentException("The amount of workers must be at least one");
+        }
+
+        executor = workers > 1 ? Executors.newFixedThreadPool(workers) : null;
+        completion = executor != null ? new ExecutorCompletionService<>(executor) : null;
+    }
+
+    public void schedule(Query query) {
+        if (executor == null) {
+            handle(query);
+        } else if (query.savesComponent()) {
+            awaitPending();
+            handle(query);
+        } else {
+            pending.add(completion.submit(() -> {
+                handle(query);
+                return null;
+            }));
+        }
+    }
+
+    /**
+     * Waits until all scheduled queries have been handled.
+     * If a query failed then the remaining queries are aborted and the exception is rethrown.
+     */
+    public void awaitPending() {
+        try {
+            // The queries are awaited in the order they complete, such that a failure is noticed immediately
+            for (int i = 0; i < pending.size(); i++) {
+                completion.take().get();
+            }
+        } catch (InterruptedException e) {
+            abortPending();
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            abortPending();
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new RuntimeException(cause);
+        } finally {
+            pending.clear();
+        }
+    }
+
+    private void abortPending() {
+        for (Future<Void> future : pending) {
+            future.cancel(true);
+        }
+
+        // The aborted queries are completed by the cancellation and must not be awaited by later invocations
+        while (completion.poll() != null) {
+            // Discard the completed query
+        }
+    }
+
+    private static void handle(Query query) {
+        long start = System.nanoTime();
+        try {
+            query.handle();
+        } finally {
+            query.setWallTime(System.nanoTime() - start);
+            // A failed query must hand over the kernel to the other contexts, also when handled on the calling thread
+            CDD.ensureDone();
+        }
+    }
+
+    @Override
+    public void close() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+}
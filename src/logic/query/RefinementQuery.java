@@ -11,7 +11,8 @@ public class RefinementQuery extends Query{
 
     @Override
     public void handle() {
-        Refinement ref = new Refinement(getSystem1(), getSystem2());
+        // With lazy preconditions a failing query is reported as soon as the exploration reaches a violation
+        Refinement ref = new Refinement(getSystem1(), getSystem2(), isLazyPreconditions(), getExtrapolation());
         boolean trace = false; // TODO: handle trace as input?
         boolean refCheck;
         if (trace) {
@@ -0,0 +1,94 @@
+package models;
+
+import java.util.BitSet;
+import java.util.Collection;
+
+/**
+ * An immutable set of {@link Channel channels} represented by a bit for each {@link Channel#getId() channel id}.
+ * Membership is a single bit test and the set operations are word operations on the bits,
+ * so alphabets can be used where sets of channels are checked for every location and channel of an exploration.
+ */
+public final class Alphabet {
+    private static final Alphabet EMPTY = new Alphabet(new BitSet());
+
+    private final BitSet channels;
+
+    private Alphabet(BitSet channels) {
+        this.channels = channels;
+    }
+
+    public static Alphabet empty() {
+        return EMPTY;
+    }
+
+    public static Alphabet of(Collection<Channel> channels) {
+        BitSet bits = new BitSet();
+        for (Channel channel : channels) {
+            bits.set(channel.getId());
+        }
+        return new Alphabet(bits);
+    }
+
+    public boolean contains(Channel channel) {
+        return channels.get(channel.getId());
+    }
+
+    public boolean containsAll(Alphabet other) {
+        BitSet missing = (BitSet) other.channels.clone();
+        missing.andNot(channels);
+        return missing.isEmpty();
+    }
+
+    public boolean intersects(Alphabet other) {
+        return channels.intersects(other.channels);
+    }
+
+    public boolean isEmpty() {
+        return channels.isEmpty();
+    }
+
+    public int size() {
+        return channels.cardinality();
+    }
+
+    public Alphabet union(Alphabet other) {
+        BitSet result = (BitSet) channels.clone();
+        result.or(other.channels);
+        return new Alphabet(result);
+    }
+
+    public Alphabet intersection(Alphabet other) {
+        BitSet result = (BitSet) channels.clone();
+        result.and(other.channels);
+        return new Alphabet(result);
+    }
+
+    public Alphabet difference(Alphabet other) {
+        BitSet result = (BitSet) channels.clone();
+        result.andNot(other.channels);
+        return new Alphabet(result);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+
+        if (!(obj instanceof Alphabet)) {
+            return false;
+        }
+
+        return channels.equals(((Alphabet) obj).channels);
+    }
+
+    @Override
+    public int hashCode() {
+        return channels.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "Alphabet" + channels;
+    }
+}
@@ -4,6 +4,7 @@ import com.google.common.collect.Iterables;
 import com.google.common.collect.Sets;
 
 import java.util.*;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 public class Automaton {
@@ -16,6 +17,20 @@ public class Automaton {
     private final Set<Channel> inputAct, outputAct, actions;
     private final Location initial;
 
+    /* The edges indexed by the name of their source and target location, such that the edges of a location
+     *   are found in time proportional to its degree instead of the amount of edges in the automaton.
+     *   The index is built when first used and afterwards maintained by addEdge, removeEdge and redirectEdge,
+     *   which are the only ways to change the edges as getEdges returns an unmodifiable view
+     *   and the setters of an edge are only accessible to the automaton. */
+    private Map<String, List<Edge>> outgoing;
+    private Map<String, Map<String, List<Edge>>> outgoingBySignal;
+    private Map<String, List<Edge>> incoming;
+
+    /* The lower and upper clock bounds of each location, computed when first used and cleared when an edge or
+     *   invariant changes. For this reason the edges and invariants of the locations of the automaton
+     *   must only be changed through the automaton, e.g. setEdgeGuard and setInvariant. */
+    private Map<Location, LUBounds> luBounds;
+
     public Automaton(String name, List<Location> locations, List<Edge> edges, List<Clock> clocks, List<BoolVar> BVs, boolean makeInputEnabled) {
         if (locations.isEmpty()) {
             throw new IllegalArgumentException(String.format("Automaton %s must have at least one location.", name));
@@ -37,7 +52,8 @@ public class Automaton {
         }
         initial = initialLocations.get(0);
 
-        this.edges = edges;
+        // Copied such that the edges can only be changed through addEdge and removeEdge
+        this.edges = new ArrayList<>(edges);
 
         // Retrieve the inputs and outputs
         inputAct = new HashSet<>();
@@ -140,8 +156,12 @@ public class Automaton {
         return locations;
     }
 
+    /**
+     * Returns an unmodifiable view of the edges.
+     * Edges are added and removed with {@link #addEdge(Edge)} and {@link #removeEdge(Edge)}, which keep the edge index up to date.
+     */
     public List<Edge> getEdges() {
-        return edges;
+        return Collections.unmodifiableList(edges);
     }
 
     public Set<Channel> getActions() {
@@ -207,20 +227,253 @@ public class Automaton {
         return result;
     }
 
-    private List<Edge> getEdgesFromLocation(Location loc) {
+    /**
+     * Returns the lower and upper bounds of the clocks in the location.
+     * The bounds of a location are the largest constants the clocks are compared with
+     * in the location or in any location reachable from it before the clock is reset.
+     * They are computed by a fixed point analysis over the edges, such that states in different locations
+     * can be extrapolated with different bounds instead of the {@link #getMaxBoundsForAllClocks() max bounds}.
+     * As for the max bounds, the constant of a diagonal constraint bounds both of its clocks.
+     *
+     * @param location The location of this automaton.
+     * @return The bounds of the location, or the max bounds if it is not a location of this automaton.
+     */
+    public synchronized LUBounds getLUBounds(Location location) {
+        if (luBounds == null) {
+            luBounds = computeLUBounds();
+        }
+
+        LUBounds bounds = luBounds.get(location);
+        if (bounds == null) {
+            return LUBounds.fromMaxBounds(getMaxBoundsForAllClocks());
+        }
+        return bounds;
+    }
+
+    /**
+     * Returns the clocks which are active in the location.
+     * A clock is active in a location if it is compared in the location
+     * or in any location reachable from it before the clock is reset.
+     * An inactive clock is always reset before it is compared again,
+     * such that its value is irrelevant and states of the location can be extended with any value of the clock.
+     *
+     * @param location The location of this automaton.
+     * @return The active clocks of the location, or all clocks if it is not a location of this automaton.
+     */
+    public synchronized Set<Clock> getActiveClocks(Location location) {
+        if (luBounds == null) {
+            luBounds = computeLUBounds();
+        }
+
+        // The bounds of a location only contain the clocks compared in or after the location before they are reset
+        LUBounds bounds = luBounds.get(location);
+        if (bounds == null) {
+            return new HashSet<>(clocks);
+        }
+        Set<Clock> result = new HashSet<>(bounds.getLower().keySet());
+        result.addAll(bounds.getUpper().keySet());
+        return result;
+    }
+
+    private Map<Location, LUBounds> computeLUBounds() {
+        Map<Location, LUBounds> result = new HashMap<>();
+        for (Location location : locations) {
+            addConstants(location.getInvariantGuard(), result.computeIfAbsent(location, key -> new LUBounds()));
+        }
+        for (Edge edge : edges) {
+            addConstants(edge.getGuard(), result.computeIfAbsent(edge.getSource(), key -> new LUBounds()));
+            result.computeIfAbsent(edge.getTarget(), key -> new LUBounds());
+        }
+
+        // The bounds of a target location apply to its source location for all clocks which are not reset
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (Edge edge : edges) {
+                Set<Clock> resets = edge.getUpdates().stream()
+                        .filter(update -> update instanceof ClockUpdate)
+                        .map(update -> ((ClockUpdate) update).getClock())
+                        .collect(Collectors.toSet());
+                LUBounds source = result.get(edge.getSource());
+                LUBounds target = result.get(edge.getTarget());
+                changed |= propagateBounds(target.getLower(), source.getLower(), resets);
+                changed |= propagateBounds(target.getUpper(), source.getUpper(), resets);
+            }
+        }
+
+        return result;
+    }
+
+    private static void addConstants(Guard guard, LUBounds bounds) {
+        List<ClockGuard> clockGuards = new ArrayList<>();
+        guard.collectClockGuards(clockGuards);
+
+        for (ClockGuard clockGuard : clockGuards) {
+            int bound = Math.abs(clockGuard.getBound());
+            if (clockGuard.isDiagonal()) {
+                for (Clock clock : Arrays.asList(clockGuard.getClock(), clockGuard.getDiagonalClock())) {
+                    bounds.getLower().merge(clock, bound, Math::max);
+                    bounds.getUpper().merge(clock, bound, Math::max);
+                }
+                continue;
+            }
+
+            Relation relation = clockGuard.getRelation();
+            if (relation != Relation.LESS_THAN && relation != Relation.LESS_EQUAL) {
+                bounds.getLower().merge(clockGuard.getClock(), bound, Math::max);
+            }
+            if (relation != Relation.GREATER_THAN && relation != Relation.GREATER_EQUAL) {
+                bounds.getUpper().merge(clockGuard.getClock(), bound, Math::max);
+            }
+        }
+    }
+
+    private static boolean propagateBounds(Map<Clock, Integer> from, Map<Clock, Integer> to, Set<Clock> resets) {
+        boolean changed = false;
+        for (Map.Entry<Clock, Integer> entry : from.entrySet()) {
+            if (resets.contains(entry.getKey())) {
+                continue;
+            }
+            Integer current = to.get(entry.getKey());
+            if (current == null || current < entry.getValue()) {
+                to.put(entry.getKey(), entry.getValue());
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Adds the edge to the automaton and its edge index.
+     */
+    public synchronized void addEdge(Edge edge) {
+        edges.add(edge);
+        luBounds = null;
+        if (outgoing != null) {
+            indexEdge(edge);
+        }
+    }
+
+    /**
+     * Removes the edge from the automaton and its edge index.
+     */
+    public synchronized void removeEdge(Edge edge) {
+        if (!edges.remove(edge)) {
+            return;
+        }
+        luBounds = null;
+        if (outgoing != null) {
+            unindexEdge(edge);
+        }
+    }
+
+    /**
+     * Changes the source and target location of an edge of the automaton and indexes it under its new locations.
+     */
+    public synchronized void redirectEdge(Edge edge, Location source, Location target) {
+        if (outgoing != null) {
+            unindexEdge(edge);
+        }
+        edge.setSource(source);
+        edge.setTarget(target);
+        if (outgoing != null) {
+            indexEdge(edge);
+        }
+        luBounds = null;
+    }
+
+    /**
+     * Sets the guard of an edge of the automaton to a computed {@link CDD}.
+     *
+     * @see Edge#setGuard(CDD, List)
+     */
+    public synchronized void setEdgeGuard(Edge edge, CDD guard, List<Clock> relevantClocks) {
+        edge.setGuard(guard, relevantClocks);
+        luBounds = null;
+    }
+
+    /**
+     * Sets the invariant of a location of the automaton.
+     *
+     * @see Location#setInvariantGuard(Guard)
+     */
+    public synchronized void setInvariant(Location location, Guard invariant) {
+        location.setInvariantGuard(invariant);
+        luBounds = null;
+    }
+
+    /**
+     * Sets the invariant of a location of the automaton to a computed {@link CDD}.
+     *
+     * @see Location#setInvariantCdd(CDD, List)
+     */
+    public synchronized void setInvariant(Location location, CDD invariant, List<Clock> relevantClocks) {
+        location.setInvariantCdd(invariant, relevantClocks);
+        luBounds = null;
+    }
+
+    public synchronized List<Edge> getEdgesFromLocation(Location loc) {
+        ensureEdgeIndex();
+        return filterEdges(outgoing.get(loc.getName()), edge -> edge.getSource().equals(loc));
+    }
+
+    public synchronized List<Edge> getEdgesFromLocationAndSignal(Location loc, Channel signal) {
+        // A universal location accepts every action
         if (loc.isUniversal()) {
             return actions.stream()
+                    .filter(action -> action.getName().equals(signal.getName()))
                     .map(action -> new Edge(loc, loc, action, inputAct.contains(action), new TrueGuard(), new ArrayList<>()))
                     .collect(Collectors.toList());
         }
-        return edges.stream().filter(edge -> edge.getSource().equals(loc)).collect(Collectors.toList());
+
+        ensureEdgeIndex();
+        Map<String, List<Edge>> bySignal = outgoingBySignal.get(loc.getName());
+        if (bySignal == null) {
+            return new ArrayList<>();
+        }
+        return filterEdges(bySignal.get(signal.getName()), edge -> edge.getSource().equals(loc));
     }
 
-    public List<Edge> getEdgesFromLocationAndSignal(Location loc, Channel signal) {
-        List<Edge> resultEdges = getEdgesFromLocation(loc);
-        return resultEdges.stream()
-                .filter(edge -> edge.getChannel().getName().equals(signal.getName()))
-                .collect(Collectors.toList());
+    public synchronized List<Edge> getEdgesToLocation(Location loc) {
+        ensureEdgeIndex();
+        return filterEdges(incoming.get(loc.getName()), edge -> edge.getTarget().equals(loc));
+    }
+
+    private static List<Edge> filterEdges(List<Edge> bucket, Predicate<Edge> predicate) {
+        if (bucket == null) {
+            return new ArrayList<>();
+        }
+        // The bucket holds all edges of locations with the same name, which are not necessarily equal
+        return bucket.stream().filter(predicate).collect(Collectors.toList());
+    }
+
+    private void ensureEdgeIndex() {
+        if (outgoing != null) {
+            return;
+        }
+
+        outgoing = new HashMap<>();
+        outgoingBySignal = new HashMap<>();
+        incoming = new HashMap<>();
+        for (Edge edge : edges) {
+            indexEdge(edge);
+        }
+    }
+
+    private void unindexEdge(Edge edge) {
+        String source = edge.getSource().getName();
+        outgoing.get(source).remove(edge);
+        outgoingBySignal.get(source).get(edge.getChannel().getName()).remove(edge);
+        incoming.get(edge.getTarget().getName()).remove(edge);
+    }
+
+    private void indexEdge(Edge edge) {
+        String source = edge.getSource().getName();
+        outgoing.computeIfAbsent(source, key -> new ArrayList<>()).add(edge);
+        outgoingBySignal.computeIfAbsent(source, key -> new HashMap<>())
+                .computeIfAbsent(edge.getChannel().getName(), key -> new ArrayList<>())
+                .add(edge);
+        incoming.computeIfAbsent(edge.getTarget().getName(), key -> new ArrayList<>()).add(edge);
     }
 
     @Override
@@ -297,8 +550,8 @@ public class Automaton {
 
                 // If there is any solution to the disabled CDD then create an edge.
                 if (disabledPart.isNotFalse()) {
-                    Edge newEdge = new Edge(location, location, input, true, disabledPart.getGuard(), new ArrayList<>());
-                    getEdges().add(newEdge);
+                    Edge newEdge = new Edge(location, location, input, true, disabledPart, null, new ArrayList<>());
+                    addEdge(newEdge);
                 }
             }
         }
@@ -315,7 +568,7 @@ public class Automaton {
             CDD targetCDD = new CDD(edge.getTarget().getInvariantGuard());
             CDD past = targetCDD.transitionBack(edge);
             if (!past.equiv(CDD.cddTrue()))
-                edge.setGuard(past.conjunction(edge.getGuardCDD()).getGuard(getClocks()));
+                setEdgeGuard(edge, past.conjunction(edge.getGuardCDD()), getClocks());
         }
 
         if (initialisedCdd) {
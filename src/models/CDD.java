@@ -16,6 +16,12 @@ public class CDD {
      */
     private long pointer;
 
+    /**
+     * The owner of the native memory pointed to by {@link CDD#pointer}.
+     * It is shared between all {@link CDD CDDs} using the same {@link CDD#pointer}, see {@link CDD#hardCopy()}.
+     */
+    private CddHandle handle;
+
     /**
      * This {@link CDD} converted to a {@link Guard}.
      */
@@ -92,29 +98,47 @@ public class CDD {
      */
     private boolean isExtractionDirty;
 
-    private static boolean cddIsRunning;
-    private static List<Clock> clocks = new ArrayList<>();
+    /**
+     * The zones of this {@link CDD} exported in a single native call, and their {@link Federation}.
+     * If {@link CDD#isZonesDirty} is <code>true</code> then this {@link CDD} has changed and the zones are exported again.
+     */
+    private CddZones zones;
+    private Federation federation;
+    private boolean isZonesDirty;
 
-    // includes the + 1 for initial clock
-    public static int numClocks;
     public static int maxSize = 1000;
     public static int cs = 1000;
     public static int stackSize = 1000;
-    public static int numBools;
-    public static int bddStartLevel;
-    public static List<BoolVar> BVs = new ArrayList<>();
 
     public CDD() {
         checkIfNotRunning();
-        this.pointer = CDDLib.allocateCdd();
+        this.handle = CddHandle.adopt(CDDLib.allocateCdd());
+        this.pointer = handle.pointer;
+        handle.share();
         setDirty();
     }
 
+    /**
+     * Constructs a new {@link CDD} which takes ownership of a freshly allocated native pointer returned from {@link CDDLib}.
+     * To get another {@link CDD} instance with the same pointer use {@link #hardCopy()} instead.
+     *
+     * @param pointer The native pointer to take ownership of.
+     */
     public CDD(long pointer) {
-        this.pointer = pointer;
+        this(CddHandle.adopt(pointer));
+    }
+
+    private CDD(CddHandle handle) {
+        this.handle = handle;
+        this.pointer = handle.pointer;
+        handle.share();
         setDirty();
     }
 
+    static CDD fromHandle(CddHandle handle) {
+        return new CDD(handle);
+    }
+
     public CDD(Guard guard)
             throws IllegalArgumentException {
         CDD cdd;
@@ -123,10 +147,10 @@ public class CDD {
         } else if (guard instanceof TrueGuard) {
             cdd = cddTrue();
         } else if (guard instanceof ClockGuard) {
-            Zone zone = new Zone(numClocks, true);
+            Zone zone = new Zone(getNumClocks(), true);
             zone.init();
-            zone.buildConstraintsForGuard((ClockGuard) guard, clocks);
-            cdd = CDD.createFromDbm(zone.getDbm(), numClocks);
+            zone.buildConstraintsForGuard((ClockGuard) guard, getClocks());
+            cdd = CDD.createFromDbm(zone.getDbm(), getNumClocks());
         } else if (guard instanceof BoolGuard) {
             cdd = create((BoolGuard) guard);
         } else if (guard instanceof AndGuard) {
@@ -142,13 +166,31 @@ public class CDD {
         } else {
             throw new IllegalArgumentException("Guard instance is not supported");
         }
+        // Takes over the handle of the intermediate result, which is not used afterwards
+        this.handle = cdd.handle;
         this.pointer = cdd.pointer;
+        setDirty();
+        // The guard this CDD is built from is already known
         this.guard = guard;
+        isGuardDirty = false;
+    }
+
+    /**
+     * Replaces the pointer of this {@link CDD} with the result of an in-place operation.
+     * The exported zones always describe the current pointer, so they are exported again after any in-place operation,
+     * also by the operations which keep the rest of their caches.
+     */
+    private void replace(long resultPointer) {
+        handle = handle.replace(resultPointer);
+        pointer = resultPointer;
+        isZonesDirty = true;
+        federation = null;
     }
 
     private void setDirty() {
         isGuardDirty = true;
         isExtractionDirty = true;
+        isZonesDirty = true;
         isDelayedDirty = true;
         isDelayedInvariantDirty = true;
         isPastDirty = true;
@@ -172,7 +214,7 @@ public class CDD {
     }
 
     public Guard getGuard() {
-        return getGuard(clocks);
+        return getGuard(getClocks());
     }
 
     private Guard toClockGuards(List<Clock> relevantClocks)
@@ -188,22 +230,17 @@ public class CDD {
             return new TrueGuard();
         }
 
-        // Required as we don't want to alter the pointer value of "this".
-        CDD copy = hardCopy();
+        CddZones zones = getZones();
 
         List<Guard> orParts = new ArrayList<>();
-        while (!copy.isTerminal()) {
-            copy.reduce().removeNegative();
-            CddExtractionResult extraction = copy.extract();
-            copy = extraction.getCddPart().reduce().removeNegative();
-
-            Zone zone = new Zone(extraction.getDbm());
-            CDD bdd = extraction.getBddPart();
+        for (int i = 0; i < zones.size(); i++) {
+            Zone zone = zones.getZone(i);
+            CDD bdd = zones.getBddPart(i);
 
             List<Guard> andParts = new ArrayList<>();
             // Adds normal guards and diagonal constraints
             andParts.add(
-                    zone.buildGuardsFromZone(clocks, relevantClocks)
+                    zone.buildGuardsFromZone(getClocks(), relevantClocks)
             );
             // Adds boolean constraints (var == val)
             andParts.add(
@@ -246,7 +283,7 @@ public class CDD {
 
                 int index = arrays.getVariables().get(i).get(j);
                 if (index >= 0) {
-                    BoolVar var = BVs.get(index - bddStartLevel);
+                    BoolVar var = getBVs().get(index - getBddStartLevel());
                     boolean val = arrays.getValues().get(i).get(j) == 1;
                     BoolGuard bg = new BoolGuard(var, Relation.EQUAL, val);
 
@@ -263,6 +300,10 @@ public class CDD {
         return pointer;
     }
 
+    CddHandle getHandle() {
+        return handle;
+    }
+
     public int getNodeCount()
             throws NullPointerException {
         checkForNull();
@@ -282,7 +323,7 @@ public class CDD {
             checkIfNotRunning();
             checkForNull();
             extraction = new CddExtractionResult(
-                    CDDLib.extractBddAndDbm(pointer)
+                    CDDLib.extractBddAndDbm(pointer), handle
             );
             isExtractionDirty = false;
         }
@@ -329,7 +370,7 @@ public class CDD {
             throws NullPointerException {
         checkForNull();
         if (isFalseDirty) {
-            isFalse = CDDLib.cddEquiv(this.pointer, cddFalse().pointer);
+            isFalse = CDDLib.cddEquiv(this.pointer, CddContext.current().falseHandle.pointer);
         }
 
         return isFalse;
@@ -345,16 +386,21 @@ public class CDD {
             throws NullPointerException {
         checkForNull();
         if (isTrueDirty) {
-            isTrue = CDDLib.cddEquiv(this.pointer, cddTrue().pointer);
+            isTrue = CDDLib.cddEquiv(this.pointer, CddContext.current().trueHandle.pointer);
         }
 
         return isTrue;
     }
 
+    /**
+     * Immediately releases the native memory of this {@link CDD}.
+     * As the memory is shared by all {@link CDD CDDs} with the same pointer, they must not be used afterwards either.
+     * The terminals returned by {@link #cddTrue()} and {@link #cddFalse()} are only released when the kernel is done.
+     */
     public void free()
             throws NullPointerException {
         checkForNull();
-        CDDLib.freeCdd(pointer);
+        handle.free();
         pointer = 0;
     }
 
@@ -367,33 +413,23 @@ public class CDD {
             return this;
         }
 
-        int numBools = 0;
-        int numClocks = 0;
-        for (Update up : list) {
-            if (up instanceof ClockUpdate) numClocks++;
-            if (up instanceof BoolUpdate) numBools++;
-        }
-        int[] clockResets = new int[numClocks];
-        int[] clockValues = new int[numClocks];
-        int[] boolResets = new int[numBools];
-        int[] boolValues = new int[numBools];
-        int cl = 0;
-        int bl = 0;
-        for (Update up : list) {
-            if (up instanceof ClockUpdate) {
-                ClockUpdate u = (ClockUpdate) up;
-                clockResets[cl] = indexOf(u.getClock());
-                clockValues[cl] = u.getValue();
-                cl++;
-            }
-            if (up instanceof BoolUpdate) {
-                BoolUpdate u = (BoolUpdate) up;
-                boolResets[bl] = bddStartLevel + indexOf(u.getBV());
-                boolValues[bl] = u.getValue() ? 1 : 0;
-                bl++;
-            }
+        return applyReset(CompiledUpdates.compile(list));
+    }
+
+    /**
+     * Applies the compiled updates to this {@link CDD}.
+     *
+     * @param updates The updates compiled in the current kernel session.
+     * @return This {@link CDD} after the updates.
+     */
+    public CDD applyReset(CompiledUpdates updates) {
+        if (isFalse() || updates.isEmpty()) {
+            return this;
         }
-        return applyReset(clockResets, clockValues, boolResets, boolValues).removeNegative().reduce();
+
+        return applyReset(
+                updates.getClockResets(), updates.getClockValues(), updates.getBoolResets(), updates.getBoolValues()
+        ).removeNegative().reduce();
     }
 
     public boolean canDelayIndefinitely() {
@@ -406,13 +442,10 @@ public class CDD {
         if (isFalse()) {
             result = false;
         } else if (!isBDD()) {
-            // Required as we don't want to alter the pointer value of "this".
-            CDD copy = hardCopy();
+            CddZones zones = getZones();
 
-            while (!copy.isTerminal()) {
-                CddExtractionResult extraction = copy.removeNegative().reduce().extract();
-                copy = extraction.getCddPart().removeNegative().reduce();
-                Zone zone = new Zone(extraction.getDbm());
+            for (int i = 0; i < zones.size(); i++) {
+                Zone zone = zones.getZone(i);
 
                 if (!zone.canDelayIndefinitely()) {
                     result = false;
@@ -434,13 +467,10 @@ public class CDD {
         if (isFalse()) {
             result = true;
         } else {
-            // Required as we don't want to alter the pointer value of "this".
-            CDD copy = hardCopy();
+            CddZones zones = getZones();
 
-            while (!copy.isTerminal()) {
-                CddExtractionResult res = copy.removeNegative().reduce().extract();
-                Zone zone = new Zone(res.getDbm());
-                copy = res.getCddPart().removeNegative().reduce();
+            for (int i = 0; i < zones.size(); i++) {
+                Zone zone = zones.getZone(i);
                 if (!zone.isUrgent()) {
                     result = false;
                     break;
@@ -462,7 +492,8 @@ public class CDD {
      * @return Returns a new CDD which is not created through {@link CDDLib#copy(long)} but with a pointer copy.
      */
     public CDD hardCopy() {
-        return new CDD(pointer);
+        checkForNull();
+        return new CDD(handle);
     }
 
     public CDD copy()
@@ -478,7 +509,7 @@ public class CDD {
             checkIfNotRunning();
             checkForNull();
 
-            pointer = CDDLib.delay(pointer);
+            replace(CDDLib.delay(pointer));
             isDelayedDirty = false;
         }
 
@@ -492,7 +523,7 @@ public class CDD {
             checkIfNotRunning();
             checkForNull();
 
-            pointer = CDDLib.delayInvar(pointer, invariant.pointer);
+            replace(CDDLib.delayInvar(pointer, invariant.pointer));
             isDelayedInvariantDirty = false;
         }
 
@@ -503,7 +534,7 @@ public class CDD {
             throws NullPointerException, CddNotRunningException {
         checkIfNotRunning();
         checkForNull();
-        pointer = CDDLib.exist(pointer, levels, clocks);
+        replace(CDDLib.exist(pointer, levels, clocks));
         setDirty();
         return this;
     }
@@ -516,7 +547,7 @@ public class CDD {
             checkIfNotRunning();
             checkForNull();
 
-            pointer = CDDLib.past(pointer);
+            replace(CDDLib.past(pointer));
             setDirty();
         }
 
@@ -530,7 +561,7 @@ public class CDD {
             checkIfNotRunning();
             checkForNull();
 
-            pointer = CDDLib.removeNegative(pointer);
+            replace(CDDLib.removeNegative(pointer));
             hasRemovedNegatives = true;
         }
 
@@ -548,7 +579,7 @@ public class CDD {
             throw new IllegalArgumentException("The amount of boolean resets and values must be the same");
         }
 
-        pointer = CDDLib.applyReset(pointer, clockResets, clockValues, boolResets, boolValues);
+        replace(CDDLib.applyReset(pointer, clockResets, clockValues, boolResets, boolValues));
         removeNegative().reduce();
         setDirty();
         return this;
@@ -559,7 +590,7 @@ public class CDD {
         checkIfNotRunning();
         checkForNull();
         guard.checkForNull();
-        pointer = CDDLib.transition(pointer, guard.pointer, clockResets, clockValues, boolResets, boolValues);
+        replace(CDDLib.transition(pointer, guard.pointer, clockResets, clockValues, boolResets, boolValues));
         removeNegative().reduce();
         setDirty();
         return this;
@@ -571,7 +602,7 @@ public class CDD {
         checkForNull();
         guard.checkForNull();
         update.checkForNull();
-        pointer = CDDLib.transitionBackPast(pointer, guard.pointer, update.pointer, clockResets, boolResets);
+        replace(CDDLib.transitionBackPast(pointer, guard.pointer, update.pointer, clockResets, boolResets));
         setDirty();
         return this;
     }
@@ -585,7 +616,7 @@ public class CDD {
             return this;
         }
 
-        pointer = CDDLib.reduce(pointer);
+        replace(CDDLib.reduce(pointer));
         setDirty();
         return this;
     }
@@ -594,11 +625,55 @@ public class CDD {
         checkIfNotRunning();
         checkForNull();
         safe.checkForNull();
-        pointer = CDDLib.predt(pointer, safe.pointer);
+        replace(CDDLib.predt(pointer, safe.pointer));
         setDirty();
         return this;
     }
 
+    /**
+     * Extrapolates every zone of this {@link CDD} with the max bounds of the clocks.
+     * The zones are extracted, closed, and extrapolated in a single native call without copying them into Java.
+     *
+     * @param maxBounds The max bound of each clock at its DBM index, where index 0 is the reference clock.
+     * @return The extrapolated {@link CDD}, or this {@link CDD} if it has no zones to extrapolate.
+     */
+    public CDD extrapolateMaxBounds(int[] maxBounds)
+            throws NullPointerException, CddNotRunningException {
+        checkIfNotRunning();
+        checkForNull();
+
+        if (isTerminal() || isBDD()) {
+            return this;
+        }
+
+        return new CDD(CDDLib.extrapolateMaxBounds(pointer, maxBounds));
+    }
+
+    /**
+     * Extrapolates every zone of this {@link CDD} with the lower and upper bounds of the clocks.
+     * The LU-extrapolation is coarser than the max bounds extrapolation,
+     * as a clock is only compared with its lower bound in lower bounded constraints and vice versa.
+     *
+     * @param lowerBounds The lower bound of each clock at its DBM index, where index 0 is the reference clock.
+     * @param upperBounds The upper bound of each clock at its DBM index, where index 0 is the reference clock.
+     * @return The extrapolated {@link CDD}, or this {@link CDD} if it has no zones to extrapolate.
+     */
+    public CDD extrapolateLUBounds(int[] lowerBounds, int[] upperBounds)
+            throws NullPointerException, CddNotRunningException {
+        checkIfNotRunning();
+        checkForNull();
+
+        if (lowerBounds.length != upperBounds.length) {
+            throw new IllegalArgumentException("There must be exactly the same amount of lower and upper bounds");
+        }
+
+        if (isTerminal() || isBDD()) {
+            return this;
+        }
+
+        return new CDD(CDDLib.extrapolateLUBounds(pointer, lowerBounds, upperBounds));
+    }
+
     public CDD minus(CDD other)
             throws NullPointerException, CddNotRunningException {
         checkIfNotRunning();
@@ -701,9 +776,40 @@ public class CDD {
         return conjunction(other).isNotFalse();
     }
 
-    public boolean isSubset(CDD other) {
-        CDD hardCopy = hardCopy();
-        return conjunction(other).equiv(hardCopy);
+    /**
+     * Returns whether this CDD is included in the other CDD.
+     * The inclusion is checked natively without creating any intermediate CDD in Java.
+     */
+    public boolean isSubset(CDD other)
+            throws NullPointerException, CddNotRunningException {
+        checkIfNotRunning();
+        checkForNull();
+        other.checkForNull();
+        return CDDLib.isSubset(pointer, other.pointer);
+    }
+
+    /**
+     * Returns the index of the first of the CDDs which this CDD is included in.
+     * All CDDs are checked in a single native call, which is cheaper than calling {@link #isSubset(CDD)} for each of them.
+     *
+     * @param others The CDDs to check whether this CDD is included in.
+     * @return The index of the first CDD including this CDD, or -1 if no CDD includes this CDD.
+     */
+    public int indexOfSuperset(List<CDD> others)
+            throws NullPointerException, CddNotRunningException {
+        checkIfNotRunning();
+        checkForNull();
+        if (others.isEmpty()) {
+            return -1;
+        }
+
+        long[] pointers = new long[others.size()];
+        for (int i = 0; i < pointers.length; i++) {
+            CDD other = others.get(i);
+            other.checkForNull();
+            pointers[i] = other.pointer;
+        }
+        return CDDLib.indexOfSuperset(pointer, pointers);
     }
 
     public boolean equiv(CDD that)
@@ -730,57 +836,45 @@ public class CDD {
         }
     }
 
-    public Federation getFederation() {
-        // TODO: does not in any way take care of BDD parts (might run endless for BCDDs?)
-        List<Zone> zoneList = new ArrayList<>();
-        // Required as we don't want to alter the pointer value of "this".
-        CDD copy = hardCopy();
+    /**
+     * Returns the zones of this {@link CDD}, which are exported in a single native call the first time they are requested
+     * and kept until this {@link CDD} changes.
+     */
+    public CddZones getZones()
+            throws NullPointerException, CddNotRunningException {
+        if (isZonesDirty) {
+            checkIfNotRunning();
+            checkForNull();
+            zones = CddZones.export(this, handle);
+            federation = null;
+            isZonesDirty = false;
+        }
+
+        return zones;
+    }
 
-        while (!copy.isTerminal()) {
-            copy.reduce().removeNegative();
-            CddExtractionResult extraction = copy.extract();
-            copy = extraction.getCddPart().reduce().removeNegative();
-            Zone zone = new Zone(extraction.getDbm());
-            zoneList.add(zone);
+    /**
+     * Returns the zones of this {@link CDD} as a {@link Federation}.
+     * The {@link Federation} is kept until this {@link CDD} changes, so it must be copied before it is changed in place.
+     */
+    public Federation getFederation() {
+        // TODO: does not in any way take care of BDD parts
+        CddZones zones = getZones();
+        if (federation == null) {
+            federation = zones.toFederation();
         }
-        return new Federation(zoneList);
+        return federation;
     }
 
     public CDD transition(Edge e) {
-        if (e.getUpdates().size() == 0) {
+        CompiledUpdates updates = e.getCompiledUpdates();
+        if (updates.isEmpty()) {
             return this.conjunction(e.getGuardCDD());
         }
 
-        List<Integer> clockResets = new ArrayList<>();
-        List<Integer> clockValues = new ArrayList<>();
-        List<Integer> boolResets = new ArrayList<>();
-        List<Integer> boolValues = new ArrayList<>();
-
-        // For each of the updates, then based on their instance type
-        //   we need to find its index and value and then add it to their collection
-        for (Update update : e.getUpdates()) {
-            if (update instanceof ClockUpdate) {
-                ClockUpdate clockUpdate = (ClockUpdate) update;
-                int clockIndex = indexOf(clockUpdate.getClock());
-                clockResets.add(clockIndex);
-                int clockValue = clockUpdate.getValue();
-                clockValues.add(clockValue);
-            } else if (update instanceof BoolUpdate) {
-                BoolUpdate boolUpdate = (BoolUpdate) update;
-                int boolIndex = bddStartLevel + indexOf(boolUpdate.getBV());
-                boolResets.add(boolIndex);
-                int boolValue = boolUpdate.getValue() ? 1 : 0;
-                boolValues.add(boolValue);
-            }
-        }
-
-        // transition requires int[] and not List<Integer> here we are converting
-        int[] arrClockResets = clockResets.stream().mapToInt(Integer::intValue).toArray();
-        int[] arrClockValues = clockValues.stream().mapToInt(Integer::intValue).toArray();
-        int[] arrBoolResets = boolResets.stream().mapToInt(Integer::intValue).toArray();
-        int[] arrBoolValues = boolValues.stream().mapToInt(Integer::intValue).toArray();
-
-        return transition(e.getGuardCDD(), arrClockResets, arrClockValues, arrBoolResets, arrBoolValues).removeNegative().reduce();
+        return transition(
+                e.getGuardCDD(), updates.getClockResets(), updates.getClockValues(), updates.getBoolResets(), updates.getBoolValues()
+        ).removeNegative().reduce();
     }
 
     public CDD transitionBack(CDD guard, CDD update, int[] clockResets, int[] boolResets)
@@ -801,41 +895,20 @@ public class CDD {
         return new CDD(CDDLib.transitionBack(pointer, guard.pointer, update.pointer, clockResets, boolResets)).removeNegative().reduce();
     }
 
-    private CDD transitionBack(CDD guard, List<Update> updates) {
-        if (updates.size() == 0) {
+    private CDD transitionBack(CDD guard, CompiledUpdates updates) {
+        if (updates.isEmpty()) {
             return this.conjunction(guard);
         }
 
-        List<Integer> clockUpdates = new ArrayList<>();
-        List<Integer> boolUpdates = new ArrayList<>();
-
-        // For each of the updates, then based on their instance type
-        //   we need to find its index and then add it to their collection
-        for (Update update : updates) {
-            if (update instanceof ClockUpdate) {
-                ClockUpdate clockUpdate = (ClockUpdate) update;
-                int clockIndex = indexOf(clockUpdate.getClock());
-                clockUpdates.add(clockIndex);
-            } else if (update instanceof BoolUpdate) {
-                BoolUpdate boolUpdate = (BoolUpdate) update;
-                int boolIndex = bddStartLevel + indexOf(boolUpdate.getBV());
-                boolUpdates.add(boolIndex);
-            }
-        }
-
-        // transitionBack requires int[] and not List<Integer> here we are converting
-        int[] arrClockUpdates = clockUpdates.stream().mapToInt(Integer::intValue).toArray();
-        int[] arrBoolUpdates = boolUpdates.stream().mapToInt(Integer::intValue).toArray();
-
-        return transitionBack(guard, create(updates), arrClockUpdates, arrBoolUpdates).removeNegative().reduce();
+        return transitionBack(guard, create(updates), updates.getClockResets(), updates.getBoolResets()).removeNegative().reduce();
     }
 
     public CDD transitionBack(Edge e) {
-        return transitionBack(e.getGuardCDD(), e.getUpdates());
+        return transitionBack(e.getGuardCDD(), e.getCompiledUpdates());
     }
 
     public CDD transitionBack(Move e) {
-        return transitionBack(e.getGuardCDD(), e.getUpdates());
+        return transitionBack(e.getGuardCDD(), e.getCompiledUpdates());
     }
 
     @Override
@@ -862,26 +935,33 @@ public class CDD {
     }
 
     public static CDD create(List<Update> updates) {
+        return create(CompiledUpdates.compile(updates));
+    }
+
+    /**
+     * Returns the {@link CDD} of the valuations right after the compiled updates,
+     * where each updated clock and boolean variable is equal to its new value.
+     */
+    public static CDD create(CompiledUpdates updates) {
         CDD res = cddTrue();
-        for (Update up : updates) {
-            if (up instanceof ClockUpdate) {
-                ClockUpdate u = (ClockUpdate) up;
-                res = res.conjunction(CDD.createInterval(indexOf(u.getClock()), 0, u.getValue(), true, u.getValue(), true));
-            }
-            if (up instanceof BoolUpdate) {
-                BoolUpdate u = (BoolUpdate) up;
-                BoolGuard bg = new BoolGuard(u.getBV(), Relation.EQUAL, u.getValue());
-                res = res.conjunction(CDD.create(bg));
-            }
+        int[] clockResets = updates.getClockResets();
+        int[] clockValues = updates.getClockValues();
+        for (int i = 0; i < clockResets.length; i++) {
+            res = res.conjunction(CDD.createInterval(clockResets[i], 0, clockValues[i], true, clockValues[i], true));
+        }
+        int[] boolResets = updates.getBoolResets();
+        int[] boolValues = updates.getBoolValues();
+        for (int i = 0; i < boolResets.length; i++) {
+            res = res.conjunction(boolValues[i] == 1 ? createBddNode(boolResets[i]) : createNegatedBddNode(boolResets[i]));
         }
         return res.removeNegative().reduce();
     }
 
     public static CDD create(BoolGuard guard) {
         if (guard.getValue()) {
-            return createBddNode(bddStartLevel + indexOf(guard.getVar()));
+            return createBddNode(getBddStartLevel() + indexOf(guard.getVar()));
         }
-        return createNegatedBddNode(bddStartLevel + indexOf(guard.getVar()));
+        return createNegatedBddNode(getBddStartLevel() + indexOf(guard.getVar()));
     }
 
     public static CDD cddUnrestrained() {
@@ -891,60 +971,84 @@ public class CDD {
     public static CDD cddTrue()
             throws CddAlreadyRunningException {
         checkIfNotRunning();
-        return new CDD(CDDLib.cddTrue());
+        return new CDD(CddContext.current().trueHandle);
     }
 
     public static CDD cddFalse() {
         checkIfNotRunning();
-        return new CDD(CDDLib.cddFalse());
+        return new CDD(CddContext.current().falseHandle);
     }
 
     public static CDD cddZero() {
-        Zone zone = new Zone(numClocks, false);
-        return CDD.createFromDbm(zone.getDbm(), numClocks);
+        Zone zone = new Zone(getNumClocks(), false);
+        return CDD.createFromDbm(zone.getDbm(), getNumClocks());
     }
 
     public static CDD cddZeroDelayed() {
-        Zone zone = new Zone(numClocks, false);
+        Zone zone = new Zone(getNumClocks(), false);
         zone.delay();
-        return CDD.createFromDbm(zone.getDbm(), numClocks);
+        return CDD.createFromDbm(zone.getDbm(), getNumClocks());
+    }
+
+    /**
+     * Returns an identifier of the kernel session of the current {@link CddContext}, which changes every time the kernel is initialised.
+     * All native memory is released when a session is done, so anything derived from a {@link CDD}
+     * must only be cached for as long as this identifier is unchanged.
+     *
+     * @return The identifier of the current kernel session.
+     */
+    public static int getSession() {
+        return CddContext.current().session;
     }
 
     public static boolean isRunning() {
-        return cddIsRunning;
+        return CddContext.current().isRunning;
     }
 
+    /**
+     * Returns the DBM index of the clock in the current kernel session, or -1 if the clock has not been added.
+     */
     public static int indexOf(Clock clock)
             throws IllegalArgumentException {
-        for (int i = 0; i < clocks.size(); i++) {
-            if (clock.hashCode() == clocks.get(i).hashCode()) {
-                return i + 1;
-            }
-        }
-        return -1;
+        Integer index = CddContext.current().clockIndices.get(clock);
+        return index != null ? index : -1;
     }
 
+    /**
+     * Returns the index of the boolean variable in the current kernel session, or -1 if the variable has not been added.
+     */
     public static int indexOf(BoolVar bv)
             throws IllegalArgumentException {
-        for (int i = 0; i < BVs.size(); i++) {
-            if (bv.equals(BVs.get(i))) {
-                return i;
-            }
-        }
-        return -1;
+        Integer index = CddContext.current().boolIndices.get(bv);
+        return index != null ? index : -1;
     }
 
     public static List<Clock> getClocks() {
-        return clocks;
+        return CddContext.current().clocks;
+    }
+
+    /**
+     * Returns the amount of clocks in the current kernel session including the reference clock.
+     */
+    public static int getNumClocks() {
+        return CddContext.current().numClocks;
+    }
+
+    public static int getNumBools() {
+        return CddContext.current().numBools;
+    }
+
+    public static int getBddStartLevel() {
+        return CddContext.current().bddStartLevel;
+    }
+
+    public static List<BoolVar> getBVs() {
+        return CddContext.current().BVs;
     }
 
     public static int init(int maxSize, int cs, int stackSize)
             throws CddAlreadyRunningException {
-        if (cddIsRunning) {
-            throw new CddAlreadyRunningException("Can't initialize when already running");
-        }
-        cddIsRunning = true;
-        return CDDLib.cddInit(maxSize, cs, stackSize);
+        return CddContext.current().init(maxSize, cs, stackSize);
     }
 
     public static int init(int maxSize, int cs, int stackSize, List<Clock> clocks, List<BoolVar> booleans) {
@@ -959,7 +1063,7 @@ public class CDD {
     }
 
     public static boolean tryInit(int maxSize, int cs, int stackSize, List<Clock> clocks, List<BoolVar> booleans) {
-        if (cddIsRunning) {
+        if (isRunning()) {
             return false;
         }
         init(maxSize, cs, stackSize, clocks, booleans);
@@ -970,17 +1074,22 @@ public class CDD {
         return tryInit(maxSize, cs, stackSize, clocks, booleans);
     }
 
+    /**
+     * Returns the amount of native CDDs which are currently allocated in this kernel session.
+     * This includes the terminals, which are allocated when the kernel is initialised.
+     *
+     * @return The amount of live native CDDs.
+     */
+    public static int getNativeHandleCount() {
+        return CddHandle.liveCount(CddContext.current());
+    }
+
     public static void done() {
-        cddIsRunning = false;
-        numClocks = 0;
-        numBools = 0;
-        clocks = new ArrayList<>();
-        BVs = new ArrayList<>();
-        CDDLib.cddDone();
+        CddContext.current().done();
     }
 
     public static void ensureDone() {
-        if (cddIsRunning) {
+        if (isRunning()) {
             done();
         }
     }
@@ -988,11 +1097,16 @@ public class CDD {
     @SafeVarargs
     public static void addClocks(List<Clock>... clocks) {
         checkIfNotRunning();
+        CddContext context = CddContext.current();
         for (List<Clock> list : clocks) {
-            CDD.clocks.addAll(list);
+            for (Clock clock : list) {
+                // The first of equal clocks determines the index, as the index is the position in the clock list
+                context.clockIndices.putIfAbsent(clock, context.clocks.size() + 1);
+                context.clocks.add(clock);
+            }
         }
-        numClocks = CDD.clocks.size() + 1;
-        CDDLib.cddAddClocks(numClocks);
+        context.numClocks = context.clocks.size() + 1;
+        CDDLib.cddAddClocks(context.numClocks);
     }
 
     public static void addClocks(Clock... clocks) {
@@ -1010,17 +1124,21 @@ public class CDD {
     @SafeVarargs
     public static int addBooleans(List<BoolVar>... BVs) {
         checkIfNotRunning();
+        CddContext context = CddContext.current();
         for (List<BoolVar> list : BVs) {
-            CDD.BVs.addAll(list);
+            for (BoolVar bv : list) {
+                context.boolIndices.putIfAbsent(bv, context.BVs.size());
+                context.BVs.add(bv);
+            }
         }
 
-        numBools = CDD.BVs.size();
-        if (numBools > 0) {
-            bddStartLevel = CDDLib.addBddvar(numBools);
+        context.numBools = context.BVs.size();
+        if (context.numBools > 0) {
+            context.bddStartLevel = CDDLib.addBddvar(context.numBools);
         } else {
-            bddStartLevel = 0;
+            context.bddStartLevel = 0;
         }
-        return bddStartLevel;
+        return context.bddStartLevel;
     }
 
     public static int addBooleans(BoolVar... BVs) {
@@ -1075,7 +1193,7 @@ public class CDD {
     }
 
     private static void checkIfNotRunning() {
-        if (!cddIsRunning) {
+        if (!isRunning()) {
             throw new CddNotRunningException("CDD.init() has not been called");
         }
     }
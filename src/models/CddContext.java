@@ -0,0 +1,134 @@
+package models;
+
+import exceptions.CddAlreadyRunningException;
+import lib.CDDLib;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A {@link CddContext} holds the state of a CDD kernel session: the clocks and boolean variables,
+ * the native handles allocated in the session, and the open {@link CddScope scopes}.
+ * Each thread is bound to its own context, and every {@link CDD} is bound to the context it was created in.
+ * The static methods of {@link CDD} always operate on the context of the calling thread,
+ * so independent queries can be evaluated on separate threads without corrupting each other's clocks and variables.
+ * <p>
+ * The native CDD library keeps its node tables in process-wide globals, for this reason only one context
+ * can own the native kernel at a time. A context acquires the kernel when it is initialised
+ * and hands it over to the next waiting context when it is done. As a consequence a thread must always call
+ * {@link CDD#done()} after {@link CDD#init(int, int, int)}, otherwise the other contexts will wait indefinitely.
+ * </p>
+ */
+public final class CddContext {
+    private static final Semaphore kernel = new Semaphore(1, true);
+    private static final AtomicInteger sessions = new AtomicInteger();
+    private static final ThreadLocal<CddContext> contexts = ThreadLocal.withInitial(CddContext::new);
+
+    boolean isRunning;
+    int session;
+    List<Clock> clocks = new ArrayList<>();
+    // includes the + 1 for initial clock
+    int numClocks;
+    int numBools;
+    int bddStartLevel;
+    List<BoolVar> BVs = new ArrayList<>();
+    // The indices of the clocks and boolean variables, such that they are resolved without scanning the lists
+    final Map<Clock, Integer> clockIndices = new HashMap<>();
+    final Map<BoolVar, Integer> boolIndices = new HashMap<>();
+
+    /**
+     * The terminals are used in all emptiness and universality checks, so they are kept for the whole kernel session.
+     */
+    CddHandle trueHandle;
+    CddHandle falseHandle;
+
+    /**
+     * All handles allocated in the current kernel session which have not been released yet.
+     */
+    final Set<CddHandle.Release> live = new HashSet<>();
+
+    /**
+     * Handles reported as unreachable by the {@link java.lang.ref.Cleaner} but which have not been released yet.
+     */
+    final Queue<CddHandle.Release> unreachable = new ConcurrentLinkedQueue<>();
+
+    final Deque<CddScope> scopes = new ArrayDeque<>();
+
+    /**
+     * Guards stored as {@link CDD CDDs} in this kernel session, which must be converted before the session is done.
+     * The guards are only referenced weakly, such that the guards of e.g. intermediate edges of an exploration
+     * are neither kept alive by the session nor converted when it is done.
+     */
+    final Set<CddGuard> unrendered = Collections.newSetFromMap(new WeakHashMap<>());
+
+    private CddContext() { }
+
+    /**
+     * Returns the context bound to the calling thread.
+     */
+    public static CddContext current() {
+        return contexts.get();
+    }
+
+    public boolean isRunning() {
+        return isRunning;
+    }
+
+    /**
+     * Returns an identifier of the kernel session of this context.
+     * The identifier is unique across all contexts and changes every time a context is initialised.
+     */
+    public int getSession() {
+        return session;
+    }
+
+    int init(int maxSize, int cs, int stackSize)
+            throws CddAlreadyRunningException {
+        if (isRunning) {
+            throw new CddAlreadyRunningException("Can't initialize when already running");
+        }
+        kernel.acquireUninterruptibly();
+        isRunning = true;
+        session = sessions.incrementAndGet();
+        int initialisation = CDDLib.cddInit(maxSize, cs, stackSize);
+        trueHandle = CddHandle.adoptPermanent(this, CDDLib.cddTrue());
+        falseHandle = CddHandle.adoptPermanent(this, CDDLib.cddFalse());
+        return initialisation;
+    }
+
+    void done() {
+        boolean wasRunning = isRunning;
+        try {
+            if (wasRunning) {
+                // Only the guards which are still reachable, e.g. from saved components, are converted
+                for (CddGuard guard : new ArrayList<>(unrendered)) {
+                    guard.render();
+                }
+                // All native CDDs must be released before the kernel is torn down as they reference its nodes
+                CddHandle.releaseAll(this);
+            }
+        } finally {
+            unrendered.clear();
+            trueHandle = null;
+            falseHandle = null;
+            numClocks = 0;
+            numBools = 0;
+            clocks = new ArrayList<>();
+            BVs = new ArrayList<>();
+            clockIndices.clear();
+            boolIndices.clear();
+
+            if (wasRunning) {
+                isRunning = false;
+                // The kernel is handed over even if the teardown fails, otherwise the other contexts wait indefinitely
+                try {
+                    CDDLib.cddDone();
+                } finally {
+                    kernel.release();
+                }
+            }
+        }
+    }
+}
@@ -10,11 +10,22 @@ public class CddExtractionResult {
     private final CDD bddPart;
     private final int[] dbm;
 
+    /**
+     * The handle of the {@link CDD} which was extracted, the parts are owned by the same scope as it.
+     */
+    private final CddHandle owner;
+
     public CddExtractionResult(long pointer) {
+        this(pointer, null);
+    }
+
+    CddExtractionResult(long pointer, CddHandle owner) {
         this.pointer = pointer;
+        this.owner = owner;
         cddPart = importCddPart();
         bddPart = importBddPart();
         dbm = importDbm();
+        // The parts are copied when imported, so the whole native extraction result can be deleted
         CDDLib.deleteCDDExtractionResult(this.pointer);
     }
 
@@ -34,7 +45,7 @@ public class CddExtractionResult {
             throws NullPointerException {
         checkForNull();
         return Objects.requireNonNullElseGet(
-                cddPart, () -> new CDD(CDDLib.getCddPartFromExtractionResult(pointer))
+                cddPart, () -> importPart(CDDLib.getCddPartFromExtractionResult(pointer))
         );
     }
 
@@ -42,7 +53,7 @@ public class CddExtractionResult {
             throws NullPointerException {
         checkForNull();
         return Objects.requireNonNullElseGet(
-                bddPart, () -> new CDD(CDDLib.getBddPartFromExtractionResult(pointer))
+                bddPart, () -> importPart(CDDLib.getBddPartFromExtractionResult(pointer))
         );
     }
 
@@ -54,6 +65,15 @@ public class CddExtractionResult {
         );
     }
 
+    private CDD importPart(long partPointer) {
+        // The part is a member of the native extraction result, so it must be copied before the result is deleted
+        long copy = CDDLib.copy(partPointer);
+        if (owner == null) {
+            return new CDD(copy);
+        }
+        return CDD.fromHandle(owner.derive(copy));
+    }
+
     private void checkForNull() {
         if (pointer == 0) {
             throw new NullPointerException("CDD extraction result is null");
@@ -0,0 +1,98 @@
+package models;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A guard or invariant which is either given as a {@link Guard} or computed as a {@link CDD}.
+ * Guards computed during e.g. input enabling and pruning are stored as the {@link CDD} they were computed as,
+ * instead of converting them to a {@link Guard} and compiling that {@link Guard} again on the next use.
+ * <p>
+ * A {@link CDD} guard is only converted to a {@link Guard} when the {@link Guard} is requested, e.g. when exporting,
+ * or at the latest when the kernel session it was computed in is done, as the {@link CDD} does not outlive its session.
+ * A guard which is no longer reachable when the session is done is never converted.
+ * A {@link Guard} is compiled to a {@link CDD} the first time the {@link CDD} is requested in a kernel session.
+ * As the models can be shared between queries evaluated on separate threads, the representation is synchronised.
+ * </p>
+ */
+final class CddGuard {
+    private Guard guard;
+    private CDD cdd;
+    private int session;
+    private List<Clock> relevantClocks;
+
+    CddGuard(Guard guard) {
+        this.guard = guard;
+    }
+
+    CddGuard(CddGuard copy) {
+        synchronized (copy) {
+            guard = copy.guard;
+            relevantClocks = copy.relevantClocks;
+            if (copy.cdd != null && CDD.isRunning() && copy.session == CDD.getSession()) {
+                cdd = CddScope.retain(copy.cdd.hardCopy());
+                session = copy.session;
+                if (guard == null) {
+                    CddContext.current().unrendered.add(this);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the guard as a {@link Guard}, converting the {@link CDD} guard if it has not been converted yet.
+     */
+    synchronized Guard getGuard() {
+        if (guard == null && cdd != null) {
+            render();
+        }
+
+        return guard;
+    }
+
+    /**
+     * Returns the guard as a {@link CDD}.
+     * The returned {@link CDD} is a hard copy, such that in-place operations on it do not change the stored {@link CDD}.
+     */
+    synchronized CDD getCdd() {
+        if (cdd == null || session != CDD.getSession()) {
+            if (guard == null) {
+                throw new IllegalStateException("The guard was computed in another kernel session");
+            }
+            // The compiled guard outlives the scope in which it was first requested
+            cdd = CddScope.retain(new CDD(guard));
+            session = CDD.getSession();
+        }
+
+        return cdd.hardCopy();
+    }
+
+    synchronized void set(Guard guard) {
+        this.guard = guard;
+        cdd = null;
+        relevantClocks = null;
+    }
+
+    /**
+     * Stores the guard as a {@link CDD} which is converted to a {@link Guard} over the relevant clocks when required.
+     *
+     * @param cdd The guard. It must not be changed in-place after it has been stored.
+     * @param relevantClocks The clocks to convert the guard over, or <code>null</code> for all clocks of the session.
+     */
+    synchronized void set(CDD cdd, List<Clock> relevantClocks) {
+        guard = null;
+        this.cdd = CddScope.retain(cdd.hardCopy());
+        this.relevantClocks = relevantClocks != null ? relevantClocks : new ArrayList<>(CDD.getClocks());
+        session = CDD.getSession();
+        CddContext.current().unrendered.add(this);
+    }
+
+    /**
+     * Converts the {@link CDD} guard to a {@link Guard} while its kernel session is still running.
+     */
+    synchronized void render() {
+        if (guard == null && cdd != null && CDD.isRunning() && session == CDD.getSession()) {
+            guard = cdd.getGuard(relevantClocks);
+        }
+    }
+}
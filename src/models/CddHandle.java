@@ -0,0 +1,223 @@
+package models;
+
+import lib.CDDLib;
+
+import java.lang.ref.Cleaner;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Owner of exactly one native {@code cdd*} allocated by {@link CDDLib} in a {@link CddContext}.
+ * <p>
+ * Multiple {@link CDD} instances can share a {@link CddHandle} (see {@link CDD#hardCopy()}),
+ * and the native memory is released when the first of the following happens:
+ * <ul>
+ *     <li>the {@link CddScope} which owns the handle is closed,
+ *     <li>{@link CDD#free()} is invoked on a {@link CDD} using the handle,
+ *     <li>the handle is no longer reachable and the {@link Cleaner} has reported it,
+ *     <li>the kernel is torn down with {@link CDD#done()}.
+ * </ul>
+ * The CDD kernel is not thread-safe, for this reason the {@link Cleaner} thread never frees anything itself.
+ * It only enqueues the unreachable handles, which are then released on the thread using the kernel
+ * the next time a handle is adopted or when the live handles are counted.
+ * </p>
+ * <p>
+ * The handle counts the {@link CDD CDDs} using it. When an in-place operation is performed on the only {@link CDD}
+ * using a handle, the handle is rebound to the result and the previous pointer is released immediately,
+ * instead of keeping it alive until the scope is closed or the {@link Cleaner} reports the handle.
+ * </p>
+ */
+final class CddHandle {
+    private static final Cleaner cleaner = Cleaner.create();
+
+    long pointer;
+    private final Release release;
+    private int owners;
+
+    private CddHandle(CddContext context, long pointer, CddScope scope, boolean isPermanent) {
+        this.pointer = pointer;
+        this.release = new Release(context, pointer, scope, isPermanent);
+
+        context.live.add(release);
+        if (scope != null) {
+            scope.own(release);
+        }
+        if (!isPermanent) {
+            cleaner.register(this, release);
+        }
+    }
+
+    /**
+     * Takes ownership of a freshly allocated native pointer in the innermost open {@link CddScope} of the current context.
+     */
+    static CddHandle adopt(long pointer) {
+        CddContext context = CddContext.current();
+        return adopt(context, pointer, CddScope.current(context));
+    }
+
+    /**
+     * Takes ownership of a freshly allocated native pointer in the provided {@link CddScope}.
+     * If the scope is <code>null</code> then the handle is only released when it is unreachable or when the kernel is done.
+     */
+    static CddHandle adopt(CddContext context, long pointer, CddScope scope) {
+        releaseUnreachable(context);
+        return new CddHandle(context, pointer, scope, false);
+    }
+
+    /**
+     * Takes ownership of a native pointer which must live for the whole kernel session, e.g. the true and false terminals.
+     */
+    static CddHandle adoptPermanent(CddContext context, long pointer) {
+        return new CddHandle(context, pointer, null, true);
+    }
+
+    /**
+     * Takes ownership of a freshly allocated native pointer which replaces this handle in a {@link CDD}.
+     * The new handle is owned by the same scope as this handle, such that in-place operations on a {@link CDD}
+     * created in an outer scope do not make it scoped to the inner {@link CddScope} in which the operation happened.
+     * If this handle has been retained then the new handle is owned by the innermost open scope,
+     * as the in-place operation is typically performed on a hard copy of a cached {@link CDD}.
+     */
+    CddHandle derive(long pointer) {
+        return adopt(release.context, pointer, deriveScope());
+    }
+
+    private CddScope deriveScope() {
+        return release.scope != null ? release.scope : CddScope.current(release.context);
+    }
+
+    /**
+     * Replaces this handle in a {@link CDD} with a freshly allocated native pointer from an in-place operation.
+     * If the {@link CDD} is the only user of this handle, and the result would be owned by the same scope,
+     * then the previous pointer is released and this handle is rebound to the result.
+     * Otherwise the result is {@link #derive(long) derived} into a new handle and this handle loses a user.
+     *
+     * @param pointer The native pointer resulting from the in-place operation.
+     * @return The handle which owns the pointer.
+     */
+    CddHandle replace(long pointer) {
+        if (owners == 1 && !release.isPermanent && !isReleased() && deriveScope() == release.scope) {
+            release.rebind(pointer);
+            this.pointer = pointer;
+            return this;
+        }
+
+        CddHandle derived = derive(pointer);
+        derived.share();
+        unshare();
+        return derived;
+    }
+
+    /**
+     * Registers another {@link CDD} using this handle.
+     */
+    void share() {
+        owners++;
+    }
+
+    /**
+     * Unregisters a {@link CDD} which no longer uses this handle.
+     */
+    void unshare() {
+        if (owners > 0) {
+            owners--;
+        }
+    }
+
+    CddScope getScope() {
+        return release.scope;
+    }
+
+    void setScope(CddScope scope) {
+        release.scope = scope;
+        if (scope != null) {
+            scope.own(release);
+        }
+    }
+
+    boolean isReleased() {
+        return release.released.get();
+    }
+
+    void free() {
+        if (!release.isPermanent) {
+            release.free();
+        }
+    }
+
+    /**
+     * Releases all handles of the context which the {@link Cleaner} has reported as unreachable.
+     */
+    static void releaseUnreachable(CddContext context) {
+        Release release;
+        while ((release = context.unreachable.poll()) != null) {
+            release.free();
+        }
+    }
+
+    /**
+     * Returns the amount of native {@code cdd*} currently owned by handles in the kernel session of the context.
+     */
+    static int liveCount(CddContext context) {
+        releaseUnreachable(context);
+        return context.live.size();
+    }
+
+    /**
+     * Releases every handle of the kernel session of the context. Must be invoked before the kernel is torn down.
+     */
+    static void releaseAll(CddContext context) {
+        for (Release release : context.live.toArray(new Release[0])) {
+            release.free();
+        }
+        context.live.clear();
+        context.unreachable.clear();
+    }
+
+    /**
+     * The state required to release a handle. It must not reference the {@link CddHandle},
+     * as that would keep the handle reachable and thereby prevent the {@link Cleaner} from ever running.
+     */
+    static final class Release implements Runnable {
+        private final CddContext context;
+        private long pointer;
+        private final boolean isPermanent;
+        private final AtomicBoolean released = new AtomicBoolean(false);
+        private CddScope scope;
+
+        private Release(CddContext context, long pointer, CddScope scope, boolean isPermanent) {
+            this.context = context;
+            this.pointer = pointer;
+            this.scope = scope;
+            this.isPermanent = isPermanent;
+        }
+
+        CddScope getScope() {
+            return scope;
+        }
+
+        void free() {
+            if (released.compareAndSet(false, true)) {
+                CDDLib.freeCdd(pointer);
+                context.live.remove(this);
+            }
+        }
+
+        /**
+         * Releases the current pointer and takes ownership of the next pointer in its place.
+         */
+        private void rebind(long pointer) {
+            CDDLib.freeCdd(this.pointer);
+            this.pointer = pointer;
+        }
+
+        /**
+         * Invoked by the {@link Cleaner} thread, so we only enqueue the release.
+         */
+        @Override
+        public void run() {
+            if (!released.get()) {
+                context.unreachable.add(this);
+            }
+        }
+    }
+}
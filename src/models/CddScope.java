@@ -0,0 +1,92 @@
+package models;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A {@link CddScope} is an arena for the native memory of {@link CDD CDDs}.
+ * Every {@link CDD} created while the scope is the innermost open scope is owned by it,
+ * and when the scope is closed all of its {@link CDD CDDs} are released at once.
+ * For this reason a {@link CDD} created within a scope must not be used after the scope has been closed,
+ * unless it has been detached from the scope with {@link #retain(CDD)}.
+ * <p>
+ * Scopes are intended to be used with try-with-resources around a complete exploration:
+ * <pre>
+ * try (CddScope scope = new CddScope()) {
+ *     // Explore the state space
+ * }
+ * </pre>
+ * Scopes belong to the {@link CddContext} of the thread which opened them
+ * and must be closed in the reverse order of which they were opened.
+ * </p>
+ *
+ * @see CDD#getNativeHandleCount()
+ */
+public final class CddScope implements AutoCloseable {
+    private final CddContext context;
+    private final CddScope parent;
+    private final List<CddHandle.Release> owned = new ArrayList<>();
+    private boolean isClosed;
+
+    public CddScope() {
+        context = CddContext.current();
+        parent = context.scopes.peek();
+        context.scopes.push(this);
+    }
+
+    /**
+     * Returns the innermost open scope of the context or <code>null</code> if no scope is open.
+     */
+    static CddScope current(CddContext context) {
+        return context.scopes.peek();
+    }
+
+    void own(CddHandle.Release release) {
+        owned.add(release);
+    }
+
+    public CddScope getParent() {
+        return parent;
+    }
+
+    public boolean isClosed() {
+        return isClosed;
+    }
+
+    /**
+     * Detaches the native memory of the {@link CDD} from any scope, such that it can safely outlive the scope it was created in.
+     * The memory is then released when the {@link CDD} is no longer reachable or when the kernel is done.
+     * This must be used when a {@link CDD} created within a scope is stored in a long-lived object, e.g. a cached invariant.
+     *
+     * @param cdd The {@link CDD} to retain.
+     * @return The same {@link CDD} instance.
+     */
+    public static CDD retain(CDD cdd) {
+        CddHandle handle = cdd.getHandle();
+        if (handle != null && handle.getScope() != null) {
+            handle.setScope(null);
+        }
+        return cdd;
+    }
+
+    @Override
+    public void close() {
+        if (isClosed) {
+            return;
+        }
+        if (context.scopes.peek() != this) {
+            throw new IllegalStateException("Scopes must be closed in the reverse order of which they were opened");
+        }
+
+        context.scopes.pop();
+        isClosed = true;
+
+        for (CddHandle.Release release : owned) {
+            // The release might have been retained or moved since it was added
+            if (release.getScope() == this) {
+                release.free();
+            }
+        }
+        owned.clear();
+    }
+}
@@ -0,0 +1,86 @@
+package models;
+
+import lib.CDDLib;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The zones of a {@link CDD}, each given by its DBM and the BDD part under which the zone holds.
+ * All zones are exported from the native library in a single call,
+ * instead of extracting each zone and each of its parts through separate calls.
+ * The DBMs are stored one after another in a single array of {@link #getDimension() dimension} squared entries each.
+ */
+public final class CddZones {
+    private final int dimension;
+    private final int[] dbms;
+    private final CDD[] bddParts;
+
+    private CddZones(int dimension, int[] dbms, CDD[] bddParts) {
+        this.dimension = dimension;
+        this.dbms = dbms;
+        this.bddParts = bddParts;
+    }
+
+    /**
+     * Exports the zones of the {@link CDD} in a single native call.
+     * The BDD parts are owned by the same scope as the {@link CDD}.
+     */
+    static CddZones export(CDD cdd, CddHandle owner) {
+        Object[] exported = CDDLib.exportZones(cdd.getPointer());
+        int[] dbms = (int[]) exported[0];
+        long[] pointers = (long[]) exported[1];
+
+        CDD[] bddParts = new CDD[pointers.length];
+        for (int i = 0; i < pointers.length; i++) {
+            bddParts[i] = CDD.fromHandle(owner.derive(pointers[i]));
+        }
+        return new CddZones(CDD.getNumClocks(), dbms, bddParts);
+    }
+
+    public int size() {
+        return bddParts.length;
+    }
+
+    public boolean isEmpty() {
+        return bddParts.length == 0;
+    }
+
+    /**
+     * Returns the dimension of the DBMs, which is the number of clocks including the reference clock.
+     */
+    public int getDimension() {
+        return dimension;
+    }
+
+    /**
+     * Returns a copy of the DBM of the zone at the index.
+     */
+    public int[] getDbm(int index) {
+        int size = dimension * dimension;
+        return Arrays.copyOfRange(dbms, index * size, (index + 1) * size);
+    }
+
+    public Zone getZone(int index) {
+        return new Zone(getDbm(index));
+    }
+
+    /**
+     * Returns the BDD part of the zone at the index, which is the condition on the boolean variables of the zone.
+     */
+    public CDD getBddPart(int index) {
+        return bddParts[index];
+    }
+
+    /**
+     * Returns the zones as a {@link Federation}, which does not take the BDD parts into account.
+     */
+    public Federation toFederation() {
+        List<Zone> zones = new ArrayList<>(size());
+        for (int i = 0; i < size(); i++) {
+            zones.add(getZone(i));
+        }
+        return new Federation(zones);
+    }
+}
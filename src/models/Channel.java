@@ -5,6 +5,7 @@ import java.util.Objects;
 public class Channel {
     private final String name;
     private int x = -999, y = -999;
+    private int id = -1;
 
     public Channel(String name) {
         this.name = name;
@@ -14,6 +15,17 @@ public class Channel {
         return name;
     }
 
+    /**
+     * Returns the dense id of this channel, which is the same for all channels with the same name.
+     * The ids are small consecutive integers, such that sets of channels can be represented as an {@link Alphabet}.
+     */
+    public int getId() {
+        if (id < 0) {
+            id = ChannelIds.of(name);
+        }
+        return id;
+    }
+
     @Override
     public int hashCode() {
         return Objects.hash(name);
@@ -0,0 +1,21 @@
+package models;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The interning table of the {@link Channel#getId() channel ids}.
+ * A channel is identified by its name, and each distinct name is assigned the next dense id the first time it is seen.
+ * The table is shared by all threads, such that channels of models shared between queries have the same ids.
+ */
+final class ChannelIds {
+    private static final Map<String, Integer> ids = new ConcurrentHashMap<>();
+    private static final AtomicInteger next = new AtomicInteger();
+
+    private ChannelIds() { }
+
+    static int of(String name) {
+        return ids.computeIfAbsent(name, key -> next.getAndIncrement());
+    }
+}
@@ -99,6 +99,11 @@ public class ClockGuard extends Guard {
         return 0;
     }
 
+    @Override
+    void collectClockGuards(List<ClockGuard> clockGuards) {
+        clockGuards.add(this);
+    }
+
     @Override
     Guard copy(List<Clock> newClocks, List<Clock> oldClocks, List<BoolVar> newBVs, List<BoolVar> oldBVs) {
         return new ClockGuard(this, newClocks, oldClocks);
@@ -0,0 +1,40 @@
+package models;
+
+/**
+ * Cache of the {@link CDD} compiled from a {@link Guard}.
+ * Compiling a {@link Guard} walks the whole guard tree and builds a DBM for each {@link ClockGuard},
+ * so it is only done the first time the {@link CDD} is requested for a {@link Guard} in a kernel session.
+ * <p>
+ * The cache is keyed on the identity of the {@link Guard} and the current kernel session.
+ * Changing the {@link Guard} or initialising a new kernel session causes the {@link Guard} to be compiled again.
+ * As the models can be shared between queries evaluated on separate threads, the cache is synchronised.
+ * </p>
+ */
+final class CompiledGuard {
+    private Guard guard;
+    private CDD cdd;
+    private int session;
+
+    /**
+     * Returns the compiled {@link CDD} of the guard.
+     * The returned {@link CDD} is a hard copy, such that in-place operations on it do not change the cached {@link CDD}.
+     *
+     * @param guard The {@link Guard} to compile.
+     * @return The {@link CDD} of the guard.
+     */
+    synchronized CDD get(Guard guard) {
+        if (cdd == null || this.guard != guard || session != CDD.getSession()) {
+            // The compiled guard outlives the scope in which it was first requested
+            cdd = CddScope.retain(new CDD(guard));
+            this.guard = guard;
+            session = CDD.getSession();
+        }
+
+        return cdd.hardCopy();
+    }
+
+    synchronized void invalidate() {
+        guard = null;
+        cdd = null;
+    }
+}
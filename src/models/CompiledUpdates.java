@@ -0,0 +1,106 @@
+package models;
+
+import java.util.List;
+
+/**
+ * The updates of an {@link Edge} or {@link Move} compiled to the primitive arrays used by the native CDD library.
+ * The clock updates are compiled to the DBM indices of the clocks and the boolean updates to the BDD levels of the
+ * variables, which are specific to the kernel session they were compiled in.
+ * Edges and moves keep their compiled updates, such that their updates are only resolved once per kernel session
+ * instead of every time a {@link CDD} is transitioned over them.
+ * <p>
+ * The arrays are shared and must not be changed.
+ * </p>
+ */
+public final class CompiledUpdates {
+    private static final int[] EMPTY = new int[0];
+
+    private final int session;
+    private final int[] clockResets;
+    private final int[] clockValues;
+    private final int[] boolResets;
+    private final int[] boolValues;
+
+    private CompiledUpdates(int session, int[] clockResets, int[] clockValues, int[] boolResets, int[] boolValues) {
+        this.session = session;
+        this.clockResets = clockResets;
+        this.clockValues = clockValues;
+        this.boolResets = boolResets;
+        this.boolValues = boolValues;
+    }
+
+    /**
+     * Compiles the updates against the clocks and boolean variables of the current kernel session.
+     *
+     * @param updates The updates to compile.
+     * @return The compiled updates.
+     */
+    public static CompiledUpdates compile(List<Update> updates) {
+        int numClocks = 0;
+        int numBools = 0;
+        for (Update update : updates) {
+            if (update instanceof ClockUpdate) numClocks++;
+            if (update instanceof BoolUpdate) numBools++;
+        }
+        if (numClocks == 0 && numBools == 0) {
+            return new CompiledUpdates(CDD.getSession(), EMPTY, EMPTY, EMPTY, EMPTY);
+        }
+
+        int[] clockResets = new int[numClocks];
+        int[] clockValues = new int[numClocks];
+        int[] boolResets = new int[numBools];
+        int[] boolValues = new int[numBools];
+        int cl = 0;
+        int bl = 0;
+        for (Update update : updates) {
+            if (update instanceof ClockUpdate) {
+                ClockUpdate clockUpdate = (ClockUpdate) update;
+                clockResets[cl] = CDD.indexOf(clockUpdate.getClock());
+                clockValues[cl] = clockUpdate.getValue();
+                cl++;
+            } else if (update instanceof BoolUpdate) {
+                BoolUpdate boolUpdate = (BoolUpdate) update;
+                boolResets[bl] = CDD.getBddStartLevel() + CDD.indexOf(boolUpdate.getBV());
+                boolValues[bl] = boolUpdate.getValue() ? 1 : 0;
+                bl++;
+            }
+        }
+        return new CompiledUpdates(CDD.getSession(), clockResets, clockValues, boolResets, boolValues);
+    }
+
+    /**
+     * Returns whether these updates were compiled in the current kernel session.
+     */
+    public boolean isCurrent() {
+        return CDD.isRunning() && session == CDD.getSession();
+    }
+
+    public boolean isEmpty() {
+        return clockResets.length == 0 && boolResets.length == 0;
+    }
+
+    /**
+     * Returns the DBM indices of the updated clocks.
+     */
+    public int[] getClockResets() {
+        return clockResets;
+    }
+
+    public int[] getClockValues() {
+        return clockValues;
+    }
+
+    /**
+     * Returns the BDD levels of the updated boolean variables.
+     */
+    public int[] getBoolResets() {
+        return boolResets;
+    }
+
+    /**
+     * Returns the values of the updated boolean variables, where 1 is true and 0 is false.
+     */
+    public int[] getBoolValues() {
+        return boolValues;
+    }
+}
@@ -10,14 +10,20 @@ public class Edge {
     private Location source, target;
     private Channel chan;
     private boolean isInput;
-    private Guard guard;
+    private final CddGuard guard;
     private List<Update> updates;
 
-    public void setSource(Location source) {
+    /* The edges of an automaton are indexed and analysed by the automaton, for this reason the setters are
+     *   package-private and an edge of an automaton is only changed through the automaton, e.g. by
+     *   Automaton.redirectEdge and Automaton.setEdgeGuard, such that it can invalidate its caches. */
+    // Replaced rather than synchronised, as compiled updates are immutable and compiling twice gives equal updates
+    private CompiledUpdates compiledUpdates;
+
+    void setSource(Location source) {
         this.source = source;
     }
 
-    public void setTarget(Location target) {
+    void setTarget(Location target) {
         this.target = target;
     }
 
@@ -25,16 +31,27 @@ public class Edge {
         return chan;
     }
 
-    public void setChan(Channel chan) {
+    void setChan(Channel chan) {
         this.chan = chan;
     }
 
-    public void setInput(boolean input) {
+    void setInput(boolean input) {
         isInput = input;
     }
 
-    public void setGuard(Guard guard) {
-        this.guard = guard;
+    void setGuard(Guard guard) {
+        this.guard.set(guard);
+    }
+
+    /**
+     * Sets the guard to a computed {@link CDD} without converting it to a {@link Guard}.
+     * The {@link CDD} is only converted when the {@link Guard} is requested or when the kernel session is done.
+     *
+     * @param guard The guard, which must not be changed in-place afterwards.
+     * @param relevantClocks The clocks to convert the guard over, or <code>null</code> for all clocks.
+     */
+    void setGuard(CDD guard, List<Clock> relevantClocks) {
+        this.guard.set(guard, relevantClocks);
     }
 
     public Edge(Location source, Location target, Channel chan, boolean isInput, Guard guards, List<Update> updates) {
@@ -42,24 +59,30 @@ public class Edge {
         this.target = target;
         this.chan = chan;
         this.isInput = isInput;
-        this.guard = guards;
+        this.guard = new CddGuard(guards);
         this.updates = updates;
     }
 
+    public Edge(Location source, Location target, Channel chan, boolean isInput, CDD guard, List<Clock> relevantClocks, List<Update> updates) {
+        this(source, target, chan, isInput, (Guard) null, updates);
+        setGuard(guard, relevantClocks);
+    }
+
     public Edge(Edge copy, List<Clock> newClocks, List<BoolVar> newBVs, Location sourceR, Location targetR, List<Clock> oldClocks, List<BoolVar> oldBVs) {
-        this(
-            sourceR,
-            targetR,
-            copy.chan,
-            copy.isInput,
-            copy.guard.copy(newClocks, oldClocks, newBVs, oldBVs),
-            copy.updates
+        this.source = sourceR;
+        this.target = targetR;
+        this.chan = copy.chan;
+        this.isInput = copy.isInput;
+        // A guard over the same variables can be shared without converting a CDD guard
+        this.guard = newClocks.equals(oldClocks) && newBVs.equals(oldBVs)
+                ? new CddGuard(copy.guard)
+                : new CddGuard(copy.getGuard().copy(newClocks, oldClocks, newBVs, oldBVs));
+        this.updates = copy.updates
                 .stream()
                 .map(update -> update.copy(
                         newClocks, oldClocks, newBVs, oldBVs
                 ))
-                .collect(Collectors.toList())
-        );
+                .collect(Collectors.toList());
     }
 
     public Edge(Edge copy, List<Clock> newClocks, List<BoolVar> newBVs, List<Clock> oldClocks, List<BoolVar> oldBVs) {
@@ -67,11 +90,11 @@ public class Edge {
     }
 
     public CDD getGuardCDD() {
-        return new CDD(guard);
+        return guard.getCdd();
     }
 
     public int getMaxConstant(Clock clock) {
-        return guard.getMaxConstant(clock);
+        return getGuard().getMaxConstant(clock);
     }
 
     // Used in determinism check to verify if two edges have exactly the same updates
@@ -98,13 +121,25 @@ public class Edge {
     }
 
     public Guard getGuard() {
-        return guard;
+        return guard.getGuard();
     }
 
     public List<Update> getUpdates() {
         return updates;
     }
 
+    /**
+     * Returns the updates compiled in the current kernel session, compiling them the first time they are requested.
+     */
+    public CompiledUpdates getCompiledUpdates() {
+        CompiledUpdates compiled = compiledUpdates;
+        if (compiled == null || !compiled.isCurrent()) {
+            compiled = CompiledUpdates.compile(updates);
+            compiledUpdates = compiled;
+        }
+        return compiled;
+    }
+
     @Override
     public boolean equals(Object obj) {
         if (this == obj) return true;
@@ -120,15 +155,13 @@ public class Edge {
         if (chan == null && edge.chan != null) {
             return false;
         }
-        if (guard == null && edge.guard != null) {
-            return false;
-        }
+        // The guards are compared last as they might have to be converted from CDDs
         return isInput == edge.isInput &&
                 source != null && source.equals(edge.source) &&
                 target != null && target.equals(edge.target) &&
                 chan != null && chan.equals(edge.chan) &&
-                guard != null && guard.equals(edge.guard) &&
-                hasEqualUpdates(edge);
+                hasEqualUpdates(edge) &&
+                Objects.equals(getGuard(), edge.getGuard());
     }
 
     @Override
@@ -137,13 +170,14 @@ public class Edge {
                 source + " - " +
                 chan.getName() +
                 (isInput ? "?" : "!") + " - " +
-                guard + " - " +
+                getGuard() + " - " +
                 Arrays.toString(this.updates.toArray()) + " - " +
                 target + ")\n";
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(source, target, chan, isInput, guard, updates);
+        // The guard is left out as it might not have been converted from a CDD yet
+        return Objects.hash(source, target, chan, isInput, updates);
     }
 }
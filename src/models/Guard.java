@@ -7,6 +7,11 @@ public abstract class Guard {
 
     abstract int getMaxConstant(Clock clock);
 
+    /**
+     * Adds the clock constraints of this guard to the list, e.g. to analyse the constants the clocks are compared with.
+     */
+    void collectClockGuards(List<ClockGuard> clockGuards) { }
+
     abstract Guard copy(List<Clock> newClocks, List<Clock> oldClocks, List<BoolVar> newBVs, List<BoolVar> oldBVs);
 
     @Override
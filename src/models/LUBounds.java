@@ -0,0 +1,74 @@
+package models;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The lower and upper bounds of the clocks, which are the largest constants the clocks are compared with
+ * in lower bounded constraints (<code>x &gt; c</code>, <code>x &gt;= c</code>) and
+ * upper bounded constraints (<code>x &lt; c</code>, <code>x &lt;= c</code>) respectively.
+ * An equality constraint bounds the clock from both sides.
+ * A clock without a bound is bounded by 0.
+ *
+ * @see Automaton#getLUBounds(Location)
+ */
+public final class LUBounds {
+    private final Map<Clock, Integer> lower;
+    private final Map<Clock, Integer> upper;
+
+    public LUBounds() {
+        this(new HashMap<>(), new HashMap<>());
+    }
+
+    public LUBounds(Map<Clock, Integer> lower, Map<Clock, Integer> upper) {
+        this.lower = lower;
+        this.upper = upper;
+    }
+
+    /**
+     * Returns bounds where the lower and upper bound of each clock is its max bound.
+     */
+    public static LUBounds fromMaxBounds(Map<Clock, Integer> maxBounds) {
+        return new LUBounds(new HashMap<>(maxBounds), new HashMap<>(maxBounds));
+    }
+
+    public Map<Clock, Integer> getLower() {
+        return lower;
+    }
+
+    public Map<Clock, Integer> getUpper() {
+        return upper;
+    }
+
+    public int getLower(Clock clock) {
+        return lower.getOrDefault(clock, 0);
+    }
+
+    public int getUpper(Clock clock) {
+        return upper.getOrDefault(clock, 0);
+    }
+
+    /**
+     * Returns the largest of the lower and upper bound of each clock with a bound.
+     */
+    public HashMap<Clock, Integer> getMaxBounds() {
+        HashMap<Clock, Integer> result = new HashMap<>(lower);
+        upper.forEach((clock, bound) -> result.merge(clock, bound, Math::max));
+        return result;
+    }
+
+    /**
+     * Returns new bounds with the largest bounds of both this and the other bounds.
+     */
+    public LUBounds merge(LUBounds other) {
+        LUBounds result = new LUBounds(new HashMap<>(lower), new HashMap<>(upper));
+        other.lower.forEach((clock, bound) -> result.lower.merge(clock, bound, Math::max));
+        other.upper.forEach((clock, bound) -> result.upper.merge(clock, bound, Math::max));
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "LUBounds{lower=" + lower + ", upper=" + upper + '}';
+    }
+}
@@ -4,6 +4,7 @@ import logic.State;
 import logic.TransitionSystem;
 import logic.Pruning;
 
+import java.lang.ref.WeakReference;
 import java.util.*;
 
 /**
@@ -12,13 +13,15 @@ import java.util.*;
  *  A {@link Location} can be marked as initial, urgent, universal, and inconsistent.
  *  In order to reduce the conversions between {@link Guard} and {@link CDD}
  *  the invariant is stored as both and only updated when required.
+ *  An invariant computed as a {@link CDD}, e.g. by {@link Pruning}, is kept as a {@link CDD}
+ *  and only converted when its {@link Guard} is requested.
  *  For {@link Pruning} it also stores the inconsistent part of its invariant.
  * <p>
  * A {@link Location} can also be <b>composed</b> of multiple locations (children).
  *  A composed location is created when performing {@link logic.Conjunction} for multiple systems,
  *  and it represents an n-tuple of locations correlated with the sequence of {@link TransitionSystem TransitionSystems}.
  *  For this reason the composed location are directly addressable with the index of the systems.
- *  The invariant of a composed location is lazily created as the conjunction of its children's invariants.
+ *  The name and invariant of a composed location are lazily created from its children's names and invariants.
  *  In this context lazily created means that the locally stored invariant value in this location is only
  *  updated when a change in this composed location warrants an update to it.
  *  This can be warranted when {@link #setInvariantGuard(Guard)} is invoked.
@@ -34,6 +37,13 @@ import java.util.*;
  *  <b>Deprecation warning:</b> <i>simple</i> locations are planned to be deprecated and one should instead create
  *      composed locations which have a more predictable specification
  * </p>
+ * <p>
+ * Every location is interned to an {@link #getId() id} which identifies it by its name and flags,
+ *  or by the ids of its children if it is composed. The id is assigned when the location is created,
+ *  and equality and hashing only compare the ids, so locations used as keys in passed lists and caches
+ *  are compared in constant time. A composed location is registered with its children,
+ *  such that its id is updated when the id of a child changes, e.g. when it is made inconsistent.
+ * </p>
  * <ul>
  * State overview:
  *     <li>name
@@ -48,9 +58,17 @@ import java.util.*;
 public final class Location {
     private String name;
     private int x, y;
+    // Assigned on creation and only replaced when the inconsistency of this location or of a child changes
+    private volatile LocationIds.Identity identity;
+    // The compositions of this location, which are only referenced weakly as they are mostly short-lived
+    private List<WeakReference<Location>> parents;
+    private int purgeParentsAt = 16;
 
     private Guard invariantGuard;
     private CDD invariantCdd;
+    private int invariantCddSession;
+    private final CompiledGuard compiledInvariant = new CompiledGuard();
+    private CddGuard computedInvariant;
 
     private CDD inconsistentPart;
 
@@ -89,6 +107,13 @@ public final class Location {
         this.children = children;
         this.x = x;
         this.y = y;
+
+        if (isComposed()) {
+            for (Location child : children) {
+                child.addParent(this);
+            }
+        }
+        this.identity = createIdentity();
     }
 
     public static Location create(
@@ -152,7 +177,6 @@ public final class Location {
             throw new IllegalArgumentException("Requires at least one location to create a product");
         }
 
-        StringBuilder nameBuilder = new StringBuilder();
         boolean isInitial = true;
         boolean isUniversal = true;
         boolean isUrgent = false;
@@ -160,27 +184,23 @@ public final class Location {
         int x = 0;
         int y = 0;
 
-        List<Guard> guards = new ArrayList<>();
         for (Location location : children) {
-            nameBuilder.append(location.getName());
             isInitial = isInitial && location.isInitial();
             isUniversal = isUniversal && location.isUniversal();
             isUrgent = isUrgent || location.isUrgent();
             isInconsistent = isInconsistent || location.isInconsistent();
             x += location.getX();
             y += location.getY();
-            guards.add(location.getInvariantGuard());
         }
 
         int amount = children.size();
         x /= amount;
         y /= amount;
-        String name = nameBuilder.toString();
 
-        Guard invariant = new AndGuard(guards);
+        // The name and the invariant guard are only created when requested
         return new Location(
-            name,
-            invariant,
+            null,
+            null,
             null,
             null,
             isInitial,
@@ -318,13 +338,80 @@ public final class Location {
 
     public void removeInvariants() {
         invariantGuard = new TrueGuard();
+        computedInvariant = null;
         invariantCdd = CDD.cddTrue();
+        invariantCddSession = CDD.getSession();
+        compiledInvariant.invalidate();
     }
 
     public String getName() {
+        if (name == null && isComposed()) {
+            StringBuilder nameBuilder = new StringBuilder();
+            for (Location location : children) {
+                nameBuilder.append(location.getName());
+            }
+            name = nameBuilder.toString();
+        }
+
         return name;
     }
 
+    /**
+     * Returns the interned id of this location.
+     * Locations which are {@link #equals(Object) equal} have the same id,
+     * such that locations can be compared and hashed in constant time.
+     */
+    public int getId() {
+        return identity.id;
+    }
+
+    private LocationIds.Identity createIdentity() {
+        if (isComposed()) {
+            List<Object> key = new ArrayList<>(children.size());
+            for (Location location : children) {
+                key.add(location.identity);
+            }
+            return LocationIds.of(key);
+        }
+
+        return LocationIds.of(Arrays.asList(name, isInitial, isUrgent, isUniversal, isInconsistent));
+    }
+
+    /**
+     * Replaces the id of this location and of all compositions of it, which derive their ids from their children.
+     */
+    private void updateIdentity() {
+        identity = createIdentity();
+        for (Location parent : getParents()) {
+            parent.updateIdentity();
+        }
+    }
+
+    private synchronized void addParent(Location parent) {
+        if (parents == null) {
+            parents = new ArrayList<>();
+        }
+        // The references to compositions which are no longer used are removed once the list has doubled in size
+        if (parents.size() >= purgeParentsAt) {
+            parents.removeIf(reference -> reference.get() == null);
+            purgeParentsAt = Math.max(16, parents.size() * 2);
+        }
+        parents.add(new WeakReference<>(parent));
+    }
+
+    private synchronized List<Location> getParents() {
+        List<Location> result = new ArrayList<>();
+        if (parents != null) {
+            for (WeakReference<Location> reference : parents) {
+                Location parent = reference.get();
+                if (parent != null) {
+                    result.add(parent);
+                }
+            }
+        }
+        return result;
+    }
+
     public boolean isInitial() {
         return isInitial;
     }
@@ -358,6 +445,18 @@ public final class Location {
     }
 
     public Guard getInvariantGuard() {
+        if (computedInvariant != null) {
+            return computedInvariant.getGuard();
+        }
+
+        if (invariantGuard == null && isComposed()) {
+            List<Guard> guards = new ArrayList<>();
+            for (Location location : children) {
+                guards.add(location.getInvariantGuard());
+            }
+            invariantGuard = new AndGuard(guards);
+        }
+
         if (invariantGuard == null) {
             invariantGuard = getInvariantCdd().getGuard();
         }
@@ -367,30 +466,71 @@ public final class Location {
 
     public CDD getInvariantCdd() {
         if (isSimple()) {
-            return new CDD(children.get(0).getInvariantGuard());
+            return compiledInvariant.get(children.get(0).getInvariantGuard());
         }
 
-        if (invariantCdd == null) {
-            if (isInconsistent) {
-                invariantCdd = CDD.cddZero();
-            } else if (isUniversal) {
-                invariantCdd = CDD.cddTrue();
-            } else if (children.size() > 0) {
-                this.invariantCdd = CDD.cddTrue();
-                for (Location location : children) {
-                    this.invariantCdd = this.invariantCdd.conjunction(location.getInvariantCdd());
-                }
-            } else {
-                invariantCdd = new CDD(getInvariantGuard());
+        if (!isComposed() && !isInconsistent && !isUniversal) {
+            if (computedInvariant != null) {
+                return computedInvariant.getCdd();
             }
+            return compiledInvariant.get(getInvariantGuard());
         }
 
-        return invariantCdd;
+        // The location can be shared between queries evaluated on separate threads
+        synchronized (this) {
+            // The cached invariant is released when the kernel session it was created in is done
+            if (invariantCdd == null || invariantCddSession != CDD.getSession()) {
+                if (isInconsistent) {
+                    invariantCdd = CDD.cddZero();
+                } else if (isUniversal) {
+                    invariantCdd = CDD.cddTrue();
+                } else {
+                    this.invariantCdd = CDD.cddTrue();
+                    for (Location location : children) {
+                        this.invariantCdd = this.invariantCdd.conjunction(location.getInvariantCdd());
+                    }
+                }
+                // The invariant is cached on the location, so it must outlive the scope it was created in
+                CddScope.retain(invariantCdd);
+                invariantCddSession = CDD.getSession();
+            }
+
+            return invariantCdd.hardCopy();
+        }
     }
 
+    /**
+     * Sets the invariant of the location.
+     * The invariant of a location of an automaton is set through {@link Automaton#setInvariant(Location, Guard)},
+     * such that the automaton recomputes the clock bounds derived from it.
+     */
     public void setInvariantGuard(Guard invariantAsGuard) {
         this.invariantGuard = invariantAsGuard;
         this.invariantCdd = null;
+        this.computedInvariant = null;
+        compiledInvariant.invalidate();
+    }
+
+    /**
+     * Sets the invariant of a location, which is neither simple nor composed, to a computed {@link CDD}
+     * without converting it to a {@link Guard}.
+     * The {@link CDD} is only converted when the {@link Guard} is requested or when the kernel session is done.
+     * The invariant of a location of an automaton is set through {@link Automaton#setInvariant(Location, CDD, List)}.
+     *
+     * @param invariant The invariant, which must not be changed in-place afterwards.
+     * @param relevantClocks The clocks to convert the invariant over, or <code>null</code> for all clocks.
+     */
+    public void setInvariantCdd(CDD invariant, List<Clock> relevantClocks) {
+        if (isSimple() || isComposed()) {
+            throw new IllegalStateException("The invariant of a simple or composed location is derived from its children");
+        }
+
+        CddGuard computed = new CddGuard((Guard) null);
+        computed.set(invariant, relevantClocks);
+        this.invariantGuard = null;
+        this.invariantCdd = null;
+        this.computedInvariant = computed;
+        compiledInvariant.invalidate();
     }
 
     public CDD getInconsistentPart() {
@@ -399,6 +539,9 @@ public final class Location {
 
     public void setInconsistent(boolean inconsistent) {
         isInconsistent = inconsistent;
+        if (!isComposed()) {
+            updateIdentity();
+        }
     }
 
     public void setInconsistentPart(CDD inconsistentPart) {
@@ -411,7 +554,7 @@ public final class Location {
 
     @Override
     public String toString() {
-        return name;
+        return getName();
     }
 
     @Override
@@ -419,34 +562,11 @@ public final class Location {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         Location that = (Location) o;
-
-        if (isComposed() && that.isComposed()) {
-            if (children.size() != that.children.size()) {
-                return false;
-            }
-
-            for (int i = 0; i < children.size(); i++) {
-                if (!children.get(i).equals(that.children.get(i))) {
-                    return false;
-                }
-            }
-
-            return true;
-        }
-
-        return isInitial() == that.isInitial() &&
-                isUrgent() == that.isUrgent() &&
-                isUniversal() == that.isUniversal() &&
-                isInconsistent() == that.isInconsistent() &&
-                getName().equals(that.getName());
+        return identity == that.identity;
     }
 
     @Override
     public int hashCode() {
-        if (isComposed()) {
-            return Objects.hash(children);
-        }
-
-        return Objects.hash(name, getInvariantGuard(), isInitial, isUrgent, isUniversal, isInconsistent);
+        return Integer.hashCode(identity.id);
     }
 }
@@ -0,0 +1,53 @@
+package models;
+
+import java.lang.ref.WeakReference;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * The interning table of the {@link Location#getId() location ids}.
+ * A plain location is identified by its name and flags, and a composed location by the identities of its children.
+ * Each distinct identity is assigned the next id the first time it is seen.
+ * The table is shared by all threads, such that locations of models shared between queries have the same ids.
+ * <p>
+ * The table only references the identities weakly. Every location keeps its {@link Identity} strongly,
+ * so an identity stays interned while any location with it is reachable,
+ * and is dropped from the table when the last location with it is no longer used, e.g. when a query is done.
+ * </p>
+ */
+final class LocationIds {
+    private static final Map<List<Object>, WeakReference<Identity>> ids = new WeakHashMap<>();
+    private static int next;
+
+    private LocationIds() { }
+
+    /**
+     * Returns the canonical identity of the key, interning the key if it has no live identity.
+     * Canonical identities are compared by reference.
+     */
+    static synchronized Identity of(List<Object> key) {
+        WeakReference<Identity> reference = ids.get(key);
+        Identity identity = reference != null ? reference.get() : null;
+        if (identity == null) {
+            identity = new Identity(next++, key);
+            // The stale entry is removed first, as putting an equal key would keep the unreachable key of the entry
+            ids.remove(key);
+            ids.put(key, new WeakReference<>(identity));
+        }
+        return identity;
+    }
+
+    /**
+     * The canonical identity of a location. It keeps its key reachable, and thereby its entry in the table.
+     */
+    static final class Identity {
+        final int id;
+        final List<Object> key;
+
+        private Identity(int id, List<Object> key) {
+            this.id = id;
+            this.key = key;
+        }
+    }
+}
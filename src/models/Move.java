@@ -7,7 +7,10 @@ public class Move {
     private Location source, target;
     private final List<Edge> edges;
     private CDD guardCDD;
+    // The conjunction of the guards of the edges, which does not include guards added to the move afterwards
+    private final CDD edgeGuardCDD;
     private List<Update> updates;
+    private CompiledUpdates compiledUpdates;
 
     public Move(Location source, Location target, List<Edge> edges) {
         this.source = source;
@@ -19,12 +22,45 @@ public class Move {
             guardCDD = guardCDD.conjunction(edge.getGuardCDD());
             updates.addAll(edge.getUpdates());
         }
+        edgeGuardCDD = guardCDD;
+    }
+
+    /**
+     * Creates a move over the edges where the conjunction of the guards of the edges has already been computed,
+     * e.g. while building the product of moves, instead of conjoining the guards of the edges again.
+     *
+     * @param edgeGuardCDD The conjunction of the guards of the edges.
+     */
+    public Move(Location source, Location target, List<Edge> edges, CDD edgeGuardCDD) {
+        this.source = source;
+        this.target = target;
+        this.edges = edges;
+        this.updates = new ArrayList<>();
+        this.guardCDD = edgeGuardCDD;
+        this.edgeGuardCDD = edgeGuardCDD;
+        for (Edge edge : edges) {
+            updates.addAll(edge.getUpdates());
+        }
     }
 
     public Move(Location source, Location target) {
         this(source, target, new ArrayList<>());
     }
 
+    /**
+     * Creates a copy of the move which can be changed without changing the copied move.
+     * The guard is a hard copy of the copied guard, such that in-place operations on it do not change the copied guard.
+     */
+    public Move(Move copy) {
+        this.source = copy.source;
+        this.target = copy.target;
+        this.edges = new ArrayList<>(copy.edges);
+        this.guardCDD = copy.guardCDD.hardCopy();
+        this.edgeGuardCDD = copy.edgeGuardCDD.hardCopy();
+        this.updates = new ArrayList<>(copy.updates);
+        this.compiledUpdates = copy.compiledUpdates;
+    }
+
     /**
      * Return the enabled part of a move based on guard, source invariant and predated target invariant
      **/
@@ -56,6 +92,15 @@ public class Move {
         return (guardCDD);
     }
 
+    /**
+     * Returns the conjunction of the guards of the edges of this move.
+     * Unlike {@link #getGuardCDD()} it does not include guards which were added to the move after it was created,
+     * e.g. the enabled parts added by a quotient, so it is the guard a product of this move starts from.
+     */
+    public CDD getEdgeGuardCDD() {
+        return edgeGuardCDD;
+    }
+
     public Guard getGuards(List<Clock> relevantClocks) {
         return guardCDD.getGuard(relevantClocks);
     }
@@ -68,8 +113,21 @@ public class Move {
         return updates;
     }
 
+    /**
+     * Returns the updates compiled in the current kernel session, compiling them the first time they are requested.
+     */
+    public CompiledUpdates getCompiledUpdates() {
+        CompiledUpdates compiled = compiledUpdates;
+        if (compiled == null || !compiled.isCurrent()) {
+            compiled = CompiledUpdates.compile(updates);
+            compiledUpdates = compiled;
+        }
+        return compiled;
+    }
+
     public void setUpdates(List<Update> updates) {
         this.updates = updates;
+        compiledUpdates = null;
     }
 
     public void setTarget(Location loc) {
@@ -82,6 +82,13 @@ public class OrGuard extends Guard {
         return max;
     }
 
+    @Override
+    void collectClockGuards(List<ClockGuard> clockGuards) {
+        for (Guard guard : guards) {
+            guard.collectClockGuards(clockGuards);
+        }
+    }
+
     @Override
     Guard copy(List<Clock> newClocks, List<Clock> oldClocks, List<BoolVar> newBVs, List<BoolVar> oldBVs) {
         return new OrGuard(
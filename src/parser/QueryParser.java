@@ -5,6 +5,7 @@ import QueryGrammar.QueryGrammarBaseVisitor;
 import QueryGrammar.QueryGrammarLexer;
 import logic.*;
 import logic.query.Query;
+import logic.query.QueryScheduler;
 import models.Automaton;
 import org.antlr.v4.runtime.CharStream;
 import org.antlr.v4.runtime.CharStreams;
@@ -19,6 +20,14 @@ public class QueryParser {
     private static List<Automaton> automata;
 
     public static List<Query> parse(String queryString, List<Automaton> systems){
+        return parse(queryString, systems, 1);
+    }
+
+    /**
+     * Parses and handles the queries, where independent queries are handled concurrently by the provided amount of workers.
+     * The returned queries are in the same order as in the query string.
+     */
+    public static List<Query> parse(String queryString, List<Automaton> systems, int workers){
         automata = systems;
         CharStream charStream = CharStreams.fromString(queryString);
         QueryGrammarLexer lexer = new QueryGrammarLexer(charStream);
@@ -28,18 +37,28 @@ public class QueryParser {
         QueryGrammarParser parser = new QueryGrammarParser(tokens);
         parser.addErrorListener(new ErrorListener());
 
-        QueriesVisitor queriesVisitor = new QueriesVisitor();
-        return queriesVisitor.visit(parser.queries());
+        try (QueryScheduler scheduler = new QueryScheduler(workers)) {
+            QueriesVisitor queriesVisitor = new QueriesVisitor(scheduler);
+            List<Query> queries = queriesVisitor.visit(parser.queries());
+            scheduler.awaitPending();
+            return queries;
+        }
     }
 
     private static class QueriesVisitor extends QueryGrammarBaseVisitor<List<Query>>{
+        private final QueryScheduler scheduler;
+
+        QueriesVisitor(QueryScheduler scheduler) {
+            this.scheduler = scheduler;
+        }
+
         @Override
         public List<Query> visitQueries(QueryGrammarParser.QueriesContext ctx) {
             QueryVisitor queryVisitor = new QueryVisitor();
             List<Query> queries = new ArrayList<>();
             for (QueryGrammarParser.QueryContext queryCtx: ctx.query()){
                 Query query = queryVisitor.visitQuery(queryCtx).build();
-                query.handle();
+                scheduler.schedule(query);
                 queries.add(query);
             }
             return queries;
@@ -85,6 +104,13 @@ public class QueryParser {
 
             Query.QueryBuilder builder = new Query.QueryBuilder();
 
+            if (ctx.EXTRAPOLATION() != null) {
+                builder.extrapolation(
+                        ctx.EXTRAPOLATION().getText().equals("local-max-bounds") ? Extrapolation.LOCAL_MAX_BOUNDS : Extrapolation.MAX_BOUNDS
+                );
+            }
+            builder.lazyPreconditions(ctx.LAZY_PRECONDITIONS() != null);
+
             SystemVisitor systemVisitor = new SystemVisitor();
             return builder
                     .queryType(Query.QueryType.REFINEMENT)
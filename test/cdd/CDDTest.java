@@ -8,6 +8,7 @@ import org.junit.After;
 import org.junit.Test;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import static org.junit.Assert.*;
@@ -328,4 +329,297 @@ public class CDDTest {
     }
 
 
+
+    @Test
+    public void scopeReleasesOwnedCdds() throws CddNotRunningException, CddAlreadyRunningException {
+        CDD.init(100,100,100);
+        List<Clock> clocks = new ArrayList<>();
+        clocks.add(new Clock("a", "A"));
+        clocks.add(new Clock("b", "B"));
+        CDD.addClocks(clocks);
+
+        int before = CDD.getNativeHandleCount();
+        try (CddScope scope = new CddScope()) {
+            CDD cdd1 = CDD.createInterval(1,0,2, true,5, true);
+            CDD cdd2 = CDD.createInterval(2,0,3, true,4, true);
+            CDD res = cdd1.conjunction(cdd2).delay();
+            assertTrue(CDD.getNativeHandleCount() > before);
+        }
+
+        assertEquals(before, CDD.getNativeHandleCount());
+    }
+
+    @Test
+    public void retainedCddOutlivesScope() throws CddNotRunningException, CddAlreadyRunningException {
+        CDD.init(100,100,100);
+        List<Clock> clocks = new ArrayList<>();
+        clocks.add(new Clock("a", "A"));
+        CDD.addClocks(clocks);
+
+        int before = CDD.getNativeHandleCount();
+        CDD retained;
+        try (CddScope scope = new CddScope()) {
+            CDD cdd = CDD.createInterval(1,0,2, true,5, true);
+            retained = CddScope.retain(cdd.delay());
+        }
+
+        assertEquals(before + 1, CDD.getNativeHandleCount());
+        assertTrue(CDD.createInterval(1,0,2, true,5, true).isSubset(retained));
+    }
+
+    @Test
+    public void freeReleasesSharedHandleOnce() throws CddNotRunningException, CddAlreadyRunningException {
+        CDD.init(100,100,100);
+        List<Clock> clocks = new ArrayList<>();
+        clocks.add(new Clock("a", "A"));
+        CDD.addClocks(clocks);
+
+        int before = CDD.getNativeHandleCount();
+        CDD cdd = CDD.createInterval(1,0,2, true,5, true);
+        CDD copy = cdd.hardCopy();
+        assertEquals(before + 1, CDD.getNativeHandleCount());
+
+        cdd.free();
+        copy.free();
+        assertEquals(before, CDD.getNativeHandleCount());
+    }
+
+    @Test
+    public void inPlaceOperationReleasesThePreviousPointerOfAnUnsharedCdd() throws CddNotRunningException, CddAlreadyRunningException {
+        CDD.init(100,100,100);
+        List<Clock> clocks = new ArrayList<>();
+        clocks.add(new Clock("a", "A"));
+        CDD.addClocks(clocks);
+
+        try (CddScope scope = new CddScope()) {
+            CDD cdd = CDD.createInterval(1,0,2, true,5, true);
+            int before = CDD.getNativeHandleCount();
+            cdd.delay().removeNegative().reduce();
+            assertEquals(before, CDD.getNativeHandleCount());
+        }
+    }
+
+    @Test
+    public void inPlaceOperationKeepsThePointerOfASharedCdd() throws CddNotRunningException, CddAlreadyRunningException {
+        CDD.init(100,100,100);
+        List<Clock> clocks = new ArrayList<>();
+        Clock a = new Clock("a", "A");
+        clocks.add(a);
+        CDD.addClocks(clocks);
+
+        try (CddScope scope = new CddScope()) {
+            CDD cdd = CDD.createInterval(1,0,2, true,5, true);
+            CDD copy = cdd.hardCopy();
+            int before = CDD.getNativeHandleCount();
+            copy.delay();
+
+            assertEquals(before + 1, CDD.getNativeHandleCount());
+            assertTrue(cdd.equiv(CDD.createInterval(1,0,2, true,5, true)));
+            assertFalse(copy.equiv(cdd));
+        }
+    }
+
+    @Test
+    public void doneReleasesAllCdds() throws CddNotRunningException, CddAlreadyRunningException {
+        CDD.init(100,100,100);
+        List<Clock> clocks = new ArrayList<>();
+        clocks.add(new Clock("a", "A"));
+        CDD.addClocks(clocks);
+
+        CDD.createInterval(1,0,2, true,5, true);
+        CDD.done();
+        assertEquals(0, CDD.getNativeHandleCount());
+
+        CDD.init(100,100,100);
+        // Only the true and false terminals are allocated by the kernel session
+        assertEquals(2, CDD.getNativeHandleCount());
+    }
+
+    @Test
+    public void contextIsBoundToThread() throws InterruptedException {
+        CDD.init(100,100,100);
+        int session = CDD.getSession();
+
+        boolean[] runningInOtherThread = new boolean[1];
+        Thread thread = new Thread(() -> runningInOtherThread[0] = CDD.isRunning());
+        thread.start();
+        thread.join();
+
+        assertTrue(CDD.isRunning());
+        assertFalse(runningInOtherThread[0]);
+        assertEquals(session, CDD.getSession());
+    }
+
+    @Test
+    public void contextsTakeTurnsOwningTheKernel() throws InterruptedException {
+        List<Integer> levels = new ArrayList<>();
+        Runnable query = () -> {
+            CDD.init(100,100,100);
+            List<Clock> clocks = new ArrayList<>();
+            clocks.add(new Clock("a", "A"));
+            CDD.addClocks(clocks);
+            List<BoolVar> BVs = new ArrayList<>();
+            BVs.add(new BoolVar("b", "aut", true));
+            int level = CDD.addBooleans(BVs);
+            CDD cdd = CDD.createInterval(1,0,2, true,5, true);
+            assertFalse(cdd.isFalse());
+            CDD.done();
+            synchronized (levels) {
+                levels.add(level);
+            }
+        };
+
+        Thread first = new Thread(query);
+        Thread second = new Thread(query);
+        first.start();
+        second.start();
+        first.join();
+        second.join();
+
+        assertEquals(2, levels.size());
+        assertEquals(levels.get(0), levels.get(1));
+    }
+
+    @Test
+    public void extrapolateMaxBoundsAbstractsConstraintsAboveTheBound() {
+        CDD.init(100,100,100);
+        List<Clock> clocks = new ArrayList<>();
+        Clock a = new Clock("a", "A");
+        clocks.add(a);
+        CDD.addClocks(clocks);
+
+        CDD zone = new CDD(new ClockGuard(a, 12, Relation.GREATER_EQUAL));
+        CDD extrapolated = zone.extrapolateMaxBounds(new int[]{0, 10});
+
+        assertTrue(extrapolated.equiv(new CDD(new ClockGuard(a, 10, Relation.GREATER_THAN))));
+    }
+
+    @Test
+    public void extrapolateLUBoundsOnlyUsesTheLowerBoundForLowerBoundedClocks() {
+        CDD.init(100,100,100);
+        List<Clock> clocks = new ArrayList<>();
+        Clock a = new Clock("a", "A");
+        clocks.add(a);
+        CDD.addClocks(clocks);
+
+        CDD zone = new CDD(new ClockGuard(a, 4, Relation.GREATER_EQUAL));
+        CDD extrapolated = zone.extrapolateLUBounds(new int[]{0, 2}, new int[]{0, 10});
+
+        assertTrue(extrapolated.equiv(new CDD(new ClockGuard(a, 2, Relation.GREATER_THAN))));
+    }
+
+    @Test
+    public void indexOfSupersetReturnsTheFirstIncludingCdd() {
+        CDD.init(100,100,100);
+        List<Clock> clocks = new ArrayList<>();
+        Clock a = new Clock("a", "A");
+        clocks.add(a);
+        CDD.addClocks(clocks);
+
+        CDD zone = new CDD(new ClockGuard(a, 4, Relation.LESS_EQUAL));
+        List<CDD> others = new ArrayList<>();
+        others.add(new CDD(new ClockGuard(a, 2, Relation.LESS_EQUAL)));
+        others.add(new CDD(new ClockGuard(a, 5, Relation.LESS_EQUAL)));
+        others.add(CDD.cddTrue());
+
+        assertTrue(zone.isSubset(others.get(1)));
+        assertFalse(zone.isSubset(others.get(0)));
+        assertEquals(1, zone.indexOfSuperset(others));
+        assertEquals(-1, zone.indexOfSuperset(others.subList(0, 1)));
+    }
+
+    @Test
+    public void compiledUpdatesUseTheIndicesOfTheSession() {
+        CDD.init(100,100,100);
+        List<Clock> clocks = new ArrayList<>();
+        Clock a = new Clock("a", "A");
+        Clock b = new Clock("b", "A");
+        clocks.add(a);
+        clocks.add(b);
+        CDD.addClocks(clocks);
+        BoolVar var = new BoolVar("v", "A", false);
+        CDD.addBooleans(var);
+
+        List<Update> updates = new ArrayList<>();
+        updates.add(new ClockUpdate(b, 3));
+        updates.add(new BoolUpdate(var, true));
+        CompiledUpdates compiled = CompiledUpdates.compile(updates);
+
+        assertArrayEquals(new int[]{2}, compiled.getClockResets());
+        assertArrayEquals(new int[]{3}, compiled.getClockValues());
+        assertArrayEquals(new int[]{CDD.getBddStartLevel()}, compiled.getBoolResets());
+        assertArrayEquals(new int[]{1}, compiled.getBoolValues());
+        assertTrue(CDD.create(compiled).equiv(CDD.create(updates)));
+    }
+
+    @Test
+    public void zonesAreExportedForEachZoneOfTheCdd() {
+        CDD.init(100,100,100);
+        List<Clock> clocks = new ArrayList<>();
+        Clock a = new Clock("a", "A");
+        clocks.add(a);
+        CDD.addClocks(clocks);
+
+        CDD lower = new CDD(new ClockGuard(a, 2, Relation.LESS_EQUAL));
+        CDD upper = new CDD(new ClockGuard(a, 5, Relation.GREATER_EQUAL));
+        CDD cdd = lower.disjunction(upper);
+
+        CddZones zones = cdd.getZones();
+        assertEquals(2, zones.size());
+        assertEquals(2, zones.getDimension());
+        assertEquals(2, cdd.getFederation().size());
+        assertTrue(CDD.cddFalse().getZones().isEmpty());
+    }
+
+    @Test
+    public void zonesAreExportedAgainAfterAnInPlaceOperation() {
+        CDD.init(100,100,100);
+        List<Clock> clocks = new ArrayList<>();
+        Clock a = new Clock("a", "A");
+        clocks.add(a);
+        CDD.addClocks(clocks);
+
+        CDD cdd = new CDD(new ClockGuard(a, 2, Relation.LESS_EQUAL));
+        Federation before = cdd.getFederation();
+        assertFalse(before.getZones().get(0).canDelayIndefinitely());
+
+        cdd.delay();
+
+        assertNotSame(before, cdd.getFederation());
+        assertTrue(cdd.getFederation().getZones().get(0).canDelayIndefinitely());
+    }
+
+    @Test
+    public void zonesAreExportedForACddBuiltFromAGuard() {
+        CDD.init(100,100,100);
+        List<Clock> clocks = new ArrayList<>();
+        Clock a = new Clock("a", "A");
+        clocks.add(a);
+        CDD.addClocks(clocks);
+
+        CDD bounded = new CDD(new ClockGuard(a, 2, Relation.LESS_EQUAL));
+        CDD unbounded = new CDD(new TrueGuard());
+
+        assertNotNull(bounded.getZones());
+        assertFalse(bounded.canDelayIndefinitely());
+        assertTrue(unbounded.canDelayIndefinitely());
+        assertTrue(unbounded.isTrue());
+    }
+
+    @Test
+    public void isSubsetIgnoresPartsWithNegativeClocks() {
+        CDD.init(100,100,100);
+        List<Clock> clocks = new ArrayList<>();
+        Clock a = new Clock("a", "A");
+        clocks.add(a);
+        CDD.addClocks(clocks);
+
+        // The true CDD also has a part where the clock is negative, which is not included in a >= 0
+        CDD nonNegative = new CDD(new ClockGuard(a, 0, Relation.GREATER_EQUAL));
+
+        assertTrue(CDD.cddTrue().isSubset(nonNegative));
+        assertEquals(0, CDD.cddTrue().indexOfSuperset(Collections.singletonList(nonNegative)));
+        assertFalse(CDD.cddTrue().isSubset(new CDD(new ClockGuard(a, 1, Relation.GREATER_EQUAL))));
+    }
+
 }
@@ -126,6 +126,54 @@ public class ConnectionTest {
         assertEquals("Automaton G14 is non-deterministic.\nAutomaton G14 is not output urgent.", queries.get(1).getResultStrings());
     }
 
+    @Test
+    public void testRunMultipleQueriesConcurrently() throws Exception {
+        List<Query> queries = Controller.handleRequest("-json " + "./samples/json/EcdarUniversity",
+                "refinement:Spec<=(Administration||Machine||Researcher); refinement:Machine3<=Machine3; " +
+                        "get-component: Machine save-as SavedMachine; refinement:SavedMachine<=Machine; refinement:Spec<=Spec", false, 4);
+
+        assertEquals(5, queries.size());
+        assertEquals(false, queries.get(0).getResult());
+        assertEquals("Not all outputs of the right side are present on the left side.", queries.get(0).getResultStrings());
+        assertEquals(true, queries.get(1).getResult());
+        assertEquals(Query.QueryType.GET_COMPONENT, queries.get(2).getType());
+        assertEquals(true, queries.get(3).getResult());
+        assertEquals(true, queries.get(4).getResult());
+        for (Query query : queries) {
+            assertTrue(query.getWallTime() > 0);
+        }
+    }
+
+    @Test
+    public void testRunQueryOnSystemSavedByConsistencyConcurrently() throws Exception {
+        List<Query> queries = Controller.handleRequest("-json " + "./samples/json/EcdarUniversity",
+                "refinement:Machine3<=Machine3; consistency: Machine || Researcher save-as MachineResearcher; " +
+                        "refinement:MachineResearcher<=Machine || Researcher; refinement:Spec<=Spec", false, 4);
+
+        assertEquals(4, queries.size());
+        assertTrue(queries.get(0).getResult());
+        assertTrue(queries.get(1).getResult());
+        assertTrue(queries.get(1).savesComponent());
+        assertTrue(queries.get(2).getResult());
+        assertTrue(queries.get(3).getResult());
+    }
+
+    @Test
+    public void testConsistencyWithoutSaveAsAddsNoComponent() throws Exception {
+        List<Query> queries = Controller.handleRequest("-json " + "./samples/json/EcdarUniversity",
+                "consistency: Machine || Researcher", false);
+
+        assertTrue(queries.get(0).getResult());
+        assertFalse(queries.get(0).isComponentNameGiven());
+        try {
+            // The default name of the query must not refer to a saved component
+            Controller.handleRequest("consistency: " + queries.get(0).getComponentName());
+            fail("The system of the consistency query was saved without a save-as name");
+        } catch (RuntimeException e) {
+            assertTrue(e.getMessage().startsWith("Automaton does not exist"));
+        }
+    }
+
     @Test(expected = FileNotFoundException.class)
     public void testRunInvalidQuery() throws Exception {
         List<Query> queries = Controller.handleRequest("-json sdfsd", "xcv", false);
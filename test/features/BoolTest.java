@@ -433,7 +433,7 @@ public class BoolTest {
         BoolVar bv = new BoolVar("a","aut",false);
         CDD.addBooleans(new ArrayList<>(){{add(bv);}});
 
-        CDD test = new CDD(CDDLib.cddNBddvar(bddStartLevel));
+        CDD test = new CDD(CDDLib.cddNBddvar(getBddStartLevel()));
         test.printDot();
         BDDArrays arr = new BDDArrays(CDDLib.bddToArray(test.getPointer()));
         Log.debug(arr);
@@ -441,7 +441,7 @@ public class BoolTest {
 
         Log.debug("###########################################################################");
 
-        CDD test1 = new CDD(CDDLib.cddBddvar(bddStartLevel));
+        CDD test1 = new CDD(CDDLib.cddBddvar(getBddStartLevel()));
         test1.printDot();
         BDDArrays arr1 = new BDDArrays(CDDLib.bddToArray(test1.getPointer()));
         Log.debug(arr1);
@@ -460,7 +460,7 @@ public class BoolTest {
         BoolVar bv1 = new BoolVar("a","aut",false);
         CDD.addBooleans(new ArrayList<>(){{add(bv1);}});
 
-        CDD test2 = new CDD(CDDLib.cddNBddvar(bddStartLevel));
+        CDD test2 = new CDD(CDDLib.cddNBddvar(getBddStartLevel()));
         BDDArrays arr2 = new BDDArrays(CDDLib.bddToArray(test2.getPointer()));
         Log.debug(arr2);
         CDD.done();
@@ -2,6 +2,7 @@ package features;
 
 import log.Log;
 import logic.Composition;
+import logic.Quotient;
 import logic.Refinement;
 import logic.SimpleTransitionSystem;
 import logic.TransitionSystem;
@@ -144,4 +145,20 @@ public class CompositionTest {
         assertTrue(new Refinement(new Composition(new TransitionSystem[]{adm, machine, researcher}), spec).check());
     }
 
+    @Test
+    public void testQuotientComposedWithItsDivisorRefinesTheDividend() {
+        // refinement: (Spec \\ Administration) || Administration <= Spec
+        TransitionSystem quotient = new Quotient(spec, adm);
+        assertTrue(new Refinement(new Composition(quotient, admCopy), specCopy).check());
+    }
+
+    @Test
+    public void testCompositionWithQuotientRefinesSelf() {
+        // refinement: (Spec \\ Administration) || Machine <= (Spec \\ Administration) || Machine
+        assertTrue(new Refinement(
+                new Composition(new Quotient(spec, adm), machine),
+                new Composition(new Quotient(specCopy, admCopy), machineCopy)
+        ).check());
+    }
+
 }
\ No newline at end of file
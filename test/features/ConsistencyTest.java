@@ -207,4 +207,23 @@ public class ConsistencyTest {
         Log.trace(ref.getErrMsg());
         assertEquals("Automaton G9 is non-deterministic." + ", Automata G3, G4, G5, G7, G10, G12 are inconsistent.", ref.getErrMsg());
     }
+
+    @Test
+    public void lazyRefinementOfInconsistentSystemFails() {
+        TransitionSystem copy = new SimpleTransitionSystem(new Automaton(automata[2]));
+
+        Refinement ref = new Refinement(G3, copy, true);
+
+        assertFalse(ref.check());
+    }
+
+    @Test
+    public void lazyRefinementOfConsistentSystemsHolds() {
+        TransitionSystem copy = new SimpleTransitionSystem(new Automaton(automata[0]));
+
+        Refinement eager = new Refinement(G1, copy);
+        Refinement lazy = new Refinement(G1, copy, true);
+
+        assertEquals(eager.check(), lazy.check());
+    }
 }
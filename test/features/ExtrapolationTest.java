@@ -0,0 +1,85 @@
+package features;
+
+import logic.*;
+import models.Automaton;
+import models.CDD;
+import org.junit.After;
+import org.junit.Test;
+import parser.JSONParser;
+import parser.XMLParser;
+
+import java.util.function.Supplier;
+
+import static org.junit.Assert.assertEquals;
+
+public class ExtrapolationTest {
+    private static final String ECDAR_UNIVERSITY = "./samples/json/EcdarUniversity/Components/";
+
+    @After
+    public void afterEachTest() {
+        if (CDD.isRunning()) {
+            CDD.done();
+        }
+    }
+
+    private static void assertSameVerdict(String name, Supplier<TransitionSystem> left, Supplier<TransitionSystem> right) {
+        // The systems are created for each check as the transition systems cache their state
+        boolean maxBounds = new Refinement(left.get(), right.get(), false, Extrapolation.MAX_BOUNDS).check();
+        boolean localMaxBounds = new Refinement(left.get(), right.get(), false, Extrapolation.LOCAL_MAX_BOUNDS).check();
+        assertEquals(name, maxBounds, localMaxBounds);
+    }
+
+    private static Supplier<TransitionSystem> system(String file) {
+        return () -> new SimpleTransitionSystem(JSONParser.parse(ECDAR_UNIVERSITY, file, true));
+    }
+
+    @Test
+    public void delayRefinementVerdictsAreTheSameForBothExtrapolations() {
+        Automaton[] automata = XMLParser.parse("./samples/xml/delayRefinement.xml", true);
+
+        for (int i = 0; i < automata.length; i++) {
+            Automaton automaton = automata[i];
+            assertSameVerdict(
+                    automaton.getName() + " <= " + automaton.getName(),
+                    () -> new SimpleTransitionSystem(automaton),
+                    () -> new SimpleTransitionSystem(new Automaton(automaton))
+            );
+
+            if (i + 1 < automata.length) {
+                Automaton next = automata[i + 1];
+                assertSameVerdict(
+                        automaton.getName() + " <= " + next.getName(),
+                        () -> new SimpleTransitionSystem(automaton),
+                        () -> new SimpleTransitionSystem(next)
+                );
+                assertSameVerdict(
+                        next.getName() + " <= " + automaton.getName(),
+                        () -> new SimpleTransitionSystem(next),
+                        () -> new SimpleTransitionSystem(automaton)
+                );
+            }
+        }
+    }
+
+    @Test
+    public void universityVerdictsAreTheSameForBothExtrapolations() {
+        Supplier<TransitionSystem> adm = system("Administration.json");
+        Supplier<TransitionSystem> machine = system("Machine.json");
+        Supplier<TransitionSystem> researcher = system("Researcher.json");
+        Supplier<TransitionSystem> spec = system("Spec.json");
+
+        assertSameVerdict(
+                "Administration || Machine || Researcher <= Spec",
+                () -> new Composition(adm.get(), machine.get(), researcher.get()),
+                spec
+        );
+        assertSameVerdict(
+                "Machine || Researcher <= Spec \\\\ Administration",
+                () -> new Composition(machine.get(), researcher.get()),
+                () -> new Quotient(spec.get(), adm.get())
+        );
+        assertSameVerdict("Machine <= Machine3", machine, system("Machine3.json"));
+        assertSameVerdict("Administration <= Adm2", adm, system("Adm2.json"));
+        assertSameVerdict("Researcher <= Spec", researcher, spec);
+    }
+}
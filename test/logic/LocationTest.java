@@ -237,4 +237,135 @@ public class LocationTest {
         assertEquals(simpleLocation.getInvariantGuard(), invariant);
         assertEquals(simpleLocation.getChildren(), children);
     }
+
+    @Test
+    public void invariantCddIsCompiledOncePerSession() {
+        // Arrange
+        Clock clock = new Clock("x", "location test");
+        List<Clock> clocks = new ArrayList<>();
+        clocks.add(clock);
+        Guard invariant = new ClockGuard(clock, 5, Relation.LESS_EQUAL);
+        Location location = Location.create("location", invariant, false, false, false, false);
+        CDD.init(CDD.maxSize, CDD.cs, CDD.stackSize, clocks, new ArrayList<>());
+
+        // Act
+        CDD first = location.getInvariantCdd();
+        int handles = CDD.getNativeHandleCount();
+        CDD second = location.getInvariantCdd();
+
+        // Assert
+        assertEquals(handles, CDD.getNativeHandleCount());
+        assertTrue(first.equiv(second));
+        CDD.done();
+    }
+
+    @Test
+    public void invariantCddIsRecompiledWhenGuardChanges() {
+        // Arrange
+        Clock clock = new Clock("x", "location test");
+        List<Clock> clocks = new ArrayList<>();
+        clocks.add(clock);
+        Location location = Location.create("location", new ClockGuard(clock, 5, Relation.LESS_EQUAL), false, false, false, false);
+        CDD.init(CDD.maxSize, CDD.cs, CDD.stackSize, clocks, new ArrayList<>());
+        CDD before = location.getInvariantCdd();
+
+        // Act
+        location.setInvariantGuard(new ClockGuard(clock, 3, Relation.LESS_EQUAL));
+        CDD after = location.getInvariantCdd();
+
+        // Assert
+        assertFalse(before.equiv(after));
+        assertTrue(after.isSubset(before));
+        CDD.done();
+    }
+
+    @Test
+    public void invariantCddIsRecompiledInNewSession() {
+        // Arrange
+        Clock clock = new Clock("x", "location test");
+        List<Clock> clocks = new ArrayList<>();
+        clocks.add(clock);
+        Guard invariant = new ClockGuard(clock, 5, Relation.LESS_EQUAL);
+        Location location = Location.create("location", invariant, false, false, false, false);
+        CDD.init(CDD.maxSize, CDD.cs, CDD.stackSize, clocks, new ArrayList<>());
+        location.getInvariantCdd();
+        CDD.done();
+
+        // Act
+        CDD.init(CDD.maxSize, CDD.cs, CDD.stackSize, clocks, new ArrayList<>());
+        CDD recompiled = location.getInvariantCdd();
+
+        // Assert
+        assertTrue(recompiled.equiv(new CDD(invariant)));
+        CDD.done();
+    }
+
+    @Test
+    public void compositionsOfEqualChildrenHaveTheSameId() {
+        // Arrange
+        Location left = Location.create("left", new TrueGuard(), true, false, false, false);
+        Location right = Location.create("right", new TrueGuard(), false, false, false, false);
+        Location leftCopy = left.copy();
+        Location rightCopy = right.copy();
+
+        // Act
+        Location composition = Location.createComposition(List.of(left, right));
+        Location compositionOfCopies = Location.createComposition(List.of(leftCopy, rightCopy));
+        Location reversed = Location.createComposition(List.of(right, left));
+
+        // Assert
+        assertEquals(composition.getId(), compositionOfCopies.getId());
+        assertEquals(composition, compositionOfCopies);
+        assertEquals(composition.hashCode(), compositionOfCopies.hashCode());
+        assertNotEquals(composition, reversed);
+        assertNotEquals(left, right);
+    }
+
+    @Test
+    public void changingTheInconsistencyOfALocationChangesItsId() {
+        // Arrange
+        Location location = Location.create("location", new TrueGuard(), false, false, false, false);
+        Location copy = location.copy();
+
+        // Act
+        copy.setInconsistent(true);
+
+        // Assert
+        assertNotEquals(location, copy);
+    }
+
+    @Test
+    public void compositionFollowsTheIdOfAChildMadeInconsistent() {
+        // Arrange
+        Location left = Location.create("left", new TrueGuard(), true, false, false, false);
+        Location right = Location.create("right", new TrueGuard(), false, false, false, false);
+        Location composition = Location.createComposition(List.of(left, right));
+        Location compositionOfCopies = Location.createComposition(List.of(left.copy(), right.copy()));
+        int before = composition.getId();
+
+        // Act
+        left.setInconsistent(true);
+
+        // Assert
+        assertNotEquals(before, composition.getId());
+        assertNotEquals(composition, compositionOfCopies);
+        assertEquals(composition, Location.createComposition(List.of(left, right)));
+    }
+
+    @Test
+    public void nestedCompositionFollowsTheIdOfAChildMadeInconsistent() {
+        // Arrange
+        Location left = Location.create("left", new TrueGuard(), true, false, false, false);
+        Location middle = Location.create("middle", new TrueGuard(), false, false, false, false);
+        Location right = Location.create("right", new TrueGuard(), false, false, false, false);
+        Location nested = Location.createComposition(List.of(Location.createComposition(List.of(left, middle)), right));
+        int before = nested.getId();
+
+        // Act
+        left.setInconsistent(true);
+
+        // Assert
+        assertNotEquals(before, nested.getId());
+        assertEquals(nested, Location.createComposition(List.of(Location.createComposition(List.of(left, middle)), right)));
+    }
 }
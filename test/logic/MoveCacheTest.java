@@ -0,0 +1,83 @@
+package logic;
+
+import models.CDD;
+import models.Channel;
+import models.Location;
+import models.Move;
+import models.TrueGuard;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.Assert.*;
+
+public class MoveCacheTest {
+    private static Location location(String name) {
+        return Location.create(name, new TrueGuard(), false, false, false, false);
+    }
+
+    @After
+    public void afterEach() {
+        if (CDD.isRunning()) {
+            CDD.done();
+        }
+    }
+
+    @Test
+    public void movesAreOnlyComputedOnce() {
+        MoveCache cache = new MoveCache();
+        Location location = location("L0");
+        Channel channel = new Channel("a");
+        int[] computations = {0};
+
+        cache.get(location, channel, () -> { computations[0]++; return new ArrayList<>(); });
+        List<Move> moves = cache.get(location, channel, () -> { computations[0]++; return new ArrayList<>(); });
+
+        assertEquals(1, computations[0]);
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+        assertTrue(moves.isEmpty());
+    }
+
+    @Test
+    public void leastRecentlyUsedEntryIsEvicted() {
+        MoveCache cache = new MoveCache(2);
+        Channel channel = new Channel("a");
+        Location first = location("L0");
+
+        cache.get(first, channel, ArrayList::new);
+        cache.get(location("L1"), channel, ArrayList::new);
+        cache.get(first, channel, ArrayList::new);
+        cache.get(location("L2"), channel, ArrayList::new);
+        cache.get(first, channel, ArrayList::new);
+
+        assertEquals(2, cache.size());
+        assertEquals(2, cache.getHits());
+        assertEquals(3, cache.getMisses());
+    }
+
+    @Test
+    public void changingReturnedMovesDoesNotChangeCachedMoves() {
+        CDD.init(100, 100, 100);
+        MoveCache cache = new MoveCache();
+        Location location = location("L0");
+        Channel channel = new Channel("a");
+        Supplier<List<Move>> compute = () -> {
+            List<Move> moves = new ArrayList<>();
+            moves.add(new Move(location, location("L1")));
+            return moves;
+        };
+
+        Move first = cache.get(location, channel, compute).get(0);
+        first.setTarget(location("L2"));
+        first.setGuards(CDD.cddFalse());
+        Move second = cache.get(location, channel, compute).get(0);
+
+        assertNotSame(first, second);
+        assertEquals("L1", second.getTarget().getName());
+        assertTrue(second.getGuardCDD().isTrue());
+    }
+}
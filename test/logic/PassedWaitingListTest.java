@@ -0,0 +1,100 @@
+package logic;
+
+import models.*;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class PassedWaitingListTest {
+    private Clock clock;
+
+    @Before
+    public void beforeEachTest() {
+        clock = new Clock("x", "passed waiting test");
+        List<Clock> clocks = new ArrayList<>();
+        clocks.add(clock);
+        CDD.init(CDD.maxSize, CDD.cs, CDD.stackSize, clocks, new ArrayList<>());
+    }
+
+    @After
+    public void afterEachTest() {
+        CDD.done();
+    }
+
+    @Test
+    public void equalLocationsAreInternedToTheSameId() {
+        // Arrange
+        PassedWaitingList list = new PassedWaitingList();
+        Location location = Location.create("location", new TrueGuard(), false, false, false, false);
+
+        // Act
+        int first = list.getLocationId(location);
+        int copy = list.getLocationId(location.copy());
+        int other = list.getLocationId(Location.create("other", new TrueGuard(), false, false, false, false));
+
+        // Assert
+        assertEquals(first, copy);
+        assertNotEquals(first, other);
+    }
+
+    @Test
+    public void passedContainsIncludedZoneOfSameLocation() {
+        // Arrange
+        PassedWaitingList list = new PassedWaitingList();
+        Location location = Location.create("location", new TrueGuard(), false, false, false, false);
+        Location other = Location.create("other", new TrueGuard(), false, false, false, false);
+        CDD larger = new CDD(new ClockGuard(clock, 10, Relation.LESS_EQUAL));
+        CDD smaller = new CDD(new ClockGuard(clock, 5, Relation.LESS_EQUAL));
+
+        // Act
+        list.addToPassed(new State(location, larger));
+
+        // Assert
+        assertTrue(list.passedContains(new State(location, smaller)));
+        assertFalse(list.passedContains(new State(other, smaller)));
+        assertFalse(list.waitingContains(new State(location, smaller)));
+    }
+
+    @Test
+    public void waitingStatesAreRemovedInOrder() {
+        // Arrange
+        PassedWaitingList list = new PassedWaitingList();
+        State first = new State(Location.create("first", new TrueGuard(), false, false, false, false), CDD.cddTrue());
+        State second = new State(Location.create("second", new TrueGuard(), false, false, false, false), CDD.cddTrue());
+
+        // Act
+        list.addToWaiting(first);
+        list.addToWaiting(second);
+        State removed = list.removeFromWaiting();
+
+        // Assert
+        assertSame(first, removed);
+        assertFalse(list.waitingContains(first));
+        assertTrue(list.waitingContains(second));
+        assertEquals(1, list.getWaitingSize());
+    }
+
+    @Test
+    public void addingAnIncludingStateSubsumesSmallerWaitingStates() {
+        // Arrange
+        PassedWaitingList list = new PassedWaitingList();
+        Location location = Location.create("location", new TrueGuard(), false, false, false, false);
+        State smaller = new State(location, new CDD(new ClockGuard(clock, 5, Relation.LESS_EQUAL)));
+        State larger = new State(location, new CDD(new ClockGuard(clock, 10, Relation.LESS_EQUAL)));
+
+        // Act
+        list.addToWaiting(smaller);
+        list.addToWaiting(larger);
+
+        // Assert
+        assertEquals(1, list.getWaitingSize());
+        assertEquals(1, list.getSubsumedCount());
+        assertSame(larger, list.removeFromWaiting());
+        assertEquals(1, list.getExpandedCount());
+    }
+}
@@ -0,0 +1,70 @@
+package logic;
+
+import models.*;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class TransitionSystemTest {
+    @After
+    public void afterEachTest() {
+        if (CDD.isRunning()) {
+            CDD.done();
+        }
+    }
+
+    private static Move move(Location source, Channel channel, Clock clock, int bound, Relation relation) {
+        Location target = Location.create(source.getName() + "'", new TrueGuard(), false, false, false, false);
+        Edge edge = new Edge(source, target, channel, false, new ClockGuard(clock, bound, relation), new ArrayList<>());
+        return new Move(source, target, Collections.singletonList(edge));
+    }
+
+    @Test
+    public void moveProductOnlyPrunesCombinationsWithUnsatisfiableGuards() {
+        // Arrange
+        Clock x = new Clock("x", "A");
+        List<Clock> clocks = new ArrayList<>();
+        clocks.add(x);
+        CDD.init(CDD.maxSize, CDD.cs, CDD.stackSize, clocks, new ArrayList<>());
+        Channel channel = new Channel("a");
+        Location first = Location.create("first", new TrueGuard(), true, false, false, false);
+        Location second = Location.create("second", new TrueGuard(), true, false, false, false);
+        Automaton automaton = new Automaton("A", first, new ArrayList<>(), clocks, new ArrayList<>());
+        TransitionSystem system = new SimpleTransitionSystem(automaton);
+
+        List<Move> moves1 = new ArrayList<>();
+        moves1.add(move(first, channel, x, 2, Relation.LESS_EQUAL));
+        moves1.add(move(first, channel, x, 8, Relation.LESS_EQUAL));
+        List<Move> moves2 = new ArrayList<>();
+        moves2.add(move(second, channel, x, 5, Relation.GREATER_EQUAL));
+        moves2.add(move(second, channel, x, 1, Relation.GREATER_EQUAL));
+
+        // Act
+        List<Move> product = system.moveProduct(moves1, moves2, true, false);
+
+        // Assert
+        List<CDD> expected = new ArrayList<>();
+        for (Move move1 : moves1) {
+            for (Move move2 : moves2) {
+                // The guard the move would have if the combination was not pruned
+                List<Edge> edges = new ArrayList<>(move1.getEdges());
+                edges.addAll(move2.getEdges());
+                CDD guard = new Move(first, first, edges).getGuardCDD();
+                if (!guard.isFalse()) {
+                    expected.add(guard);
+                }
+            }
+        }
+
+        assertEquals(1, system.getPrunedMoves());
+        assertEquals(expected.size(), product.size());
+        for (int i = 0; i < product.size(); i++) {
+            assertTrue(product.get(i).getGuardCDD().equiv(expected.get(i)));
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package logic.query;
+
+import models.CDD;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class QuerySchedulerTest {
+    private static Query query(Runnable handle) {
+        return new Query(new Query.QueryBuilder().queryType(Query.QueryType.CONSISTENCY)) {
+            @Override
+            public void handle() {
+                handle.run();
+            }
+        };
+    }
+
+    @Test
+    public void failingQueryAbortsPendingQueries() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch aborted = new CountDownLatch(1);
+        Query blocking = query(() -> {
+            started.countDown();
+            try {
+                Thread.sleep(TimeUnit.MINUTES.toMillis(1));
+            } catch (InterruptedException e) {
+                aborted.countDown();
+            }
+        });
+        Query failing = query(() -> {
+            try {
+                started.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            throw new IllegalStateException("failure");
+        });
+
+        try (QueryScheduler scheduler = new QueryScheduler(2)) {
+            scheduler.schedule(blocking);
+            scheduler.schedule(failing);
+
+            try {
+                scheduler.awaitPending();
+                fail("The failure of the query was not rethrown");
+            } catch (IllegalStateException e) {
+                assertEquals("failure", e.getMessage());
+            }
+        }
+
+        assertTrue(aborted.await(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void awaitPendingHandlesAllQueries() {
+        CountDownLatch handled = new CountDownLatch(3);
+
+        try (QueryScheduler scheduler = new QueryScheduler(2)) {
+            for (int i = 0; i < 3; i++) {
+                scheduler.schedule(query(handled::countDown));
+            }
+            scheduler.awaitPending();
+        }
+
+        assertEquals(0, handled.getCount());
+    }
+
+    @Test
+    public void failingQueryOnTheCallingThreadHandsOverTheKernel() {
+        Query failing = query(() -> {
+            CDD.init(CDD.maxSize, CDD.cs, CDD.stackSize);
+            throw new IllegalStateException("failure");
+        });
+
+        try (QueryScheduler scheduler = new QueryScheduler(1)) {
+            scheduler.schedule(failing);
+            fail("The failure of the query was not rethrown");
+        } catch (IllegalStateException e) {
+            assertEquals("failure", e.getMessage());
+        }
+
+        assertFalse(CDD.isRunning());
+    }
+}
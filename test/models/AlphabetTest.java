@@ -0,0 +1,47 @@
+package models;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+public class AlphabetTest {
+    @Test
+    public void channelsWithTheSameNameHaveTheSameId() {
+        // Arrange
+        Channel channel = new Channel("coin");
+        Channel copy = new Channel("coin");
+        Channel other = new Channel("tea");
+
+        // Assert
+        assertEquals(channel.getId(), copy.getId());
+        assertNotEquals(channel.getId(), other.getId());
+    }
+
+    @Test
+    public void setOperationsMatchTheChannelSets() {
+        // Arrange
+        Channel coin = new Channel("coin");
+        Channel tea = new Channel("tea");
+        Channel coffee = new Channel("coffee");
+        Alphabet left = Alphabet.of(Arrays.asList(coin, tea));
+        Alphabet right = Alphabet.of(Arrays.asList(tea, coffee));
+
+        // Act
+        Alphabet intersection = left.intersection(right);
+        Alphabet difference = left.difference(right);
+        Alphabet union = left.union(right);
+
+        // Assert
+        assertTrue(intersection.contains(new Channel("tea")));
+        assertEquals(1, intersection.size());
+        assertTrue(difference.contains(coin));
+        assertFalse(difference.contains(tea));
+        assertEquals(3, union.size());
+        assertTrue(union.containsAll(left));
+        assertFalse(left.containsAll(union));
+        assertTrue(left.intersects(right));
+        assertFalse(difference.intersects(right));
+    }
+}
@@ -3,7 +3,10 @@ package models;
 import org.junit.Test;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import static org.junit.Assert.*;
 
@@ -76,4 +79,194 @@ public class AutomatonTest {
         assertNotSame(automaton.getOutputAct(), copy.getOutputAct());
         assertNotSame(automaton.getBVs(), copy.getBVs());
     }
+
+    @Test
+    public void testEdgeIndexIsMaintainedByAddAndRemove() {
+        // Arrange
+        Channel input = new Channel("input");
+        Channel output = new Channel("output");
+        Location first = Location.create("First", new TrueGuard(), true, false, false, false);
+        Location second = Location.create("Second", new TrueGuard(), false, false, false, false);
+        List<Location> locations = new ArrayList<>();
+        locations.add(first);
+        locations.add(second);
+        List<Edge> edges = new ArrayList<>();
+        Edge toSecond = new Edge(first, second, output, false, new TrueGuard(), new ArrayList<>());
+        edges.add(toSecond);
+        Automaton automaton = new Automaton("automaton", locations, edges, new ArrayList<>(), new ArrayList<>(), false);
+        Edge loop = new Edge(first, first, input, true, new TrueGuard(), new ArrayList<>());
+
+        // Act
+        List<Edge> outputsBefore = automaton.getEdgesFromLocationAndSignal(first, output);
+        automaton.addEdge(loop);
+        automaton.removeEdge(toSecond);
+
+        // Assert
+        assertEquals(1, outputsBefore.size());
+        assertTrue(automaton.getEdgesFromLocationAndSignal(first, output).isEmpty());
+        assertEquals(1, automaton.getEdgesFromLocationAndSignal(first, input).size());
+        assertEquals(1, automaton.getEdgesFromLocation(first).size());
+        assertEquals(1, automaton.getEdgesToLocation(first).size());
+        assertTrue(automaton.getEdgesToLocation(second).isEmpty());
+    }
+
+    @Test
+    public void testEdgesCanOnlyBeChangedThroughTheAutomaton() {
+        // Arrange
+        Channel output = new Channel("output");
+        Location first = Location.create("First", new TrueGuard(), true, false, false, false);
+        Location second = Location.create("Second", new TrueGuard(), false, false, false, false);
+        List<Location> locations = new ArrayList<>();
+        locations.add(first);
+        locations.add(second);
+        List<Edge> edges = new ArrayList<>();
+        edges.add(new Edge(first, second, output, false, new TrueGuard(), new ArrayList<>()));
+        Automaton automaton = new Automaton("automaton", locations, edges, new ArrayList<>(), new ArrayList<>(), false);
+        List<Edge> outputsBefore = automaton.getEdgesFromLocationAndSignal(first, output);
+
+        // Act
+        edges.set(0, new Edge(second, first, output, false, new TrueGuard(), new ArrayList<>()));
+
+        // Assert
+        assertEquals(outputsBefore, automaton.getEdgesFromLocationAndSignal(first, output));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testEdgesAreUnmodifiable() {
+        Location location = Location.create("First", new TrueGuard(), true, false, false, false);
+        Automaton automaton = new Automaton("automaton", Collections.singletonList(location), new ArrayList<>(), new ArrayList<>(), new ArrayList<>(), false);
+
+        automaton.getEdges().add(new Edge(location, location, new Channel("output"), false, new TrueGuard(), new ArrayList<>()));
+    }
+
+    @Test
+    public void testRedirectedEdgeIsIndexedUnderItsNewLocations() {
+        // Arrange
+        Channel output = new Channel("output");
+        Location first = Location.create("First", new TrueGuard(), true, false, false, false);
+        Location second = Location.create("Second", new TrueGuard(), false, false, false, false);
+        List<Location> locations = new ArrayList<>();
+        locations.add(first);
+        locations.add(second);
+        List<Edge> edges = new ArrayList<>();
+        Edge edge = new Edge(first, second, output, false, new TrueGuard(), new ArrayList<>());
+        edges.add(edge);
+        Automaton automaton = new Automaton("automaton", locations, edges, new ArrayList<>(), new ArrayList<>(), false);
+        List<Edge> outputsBefore = automaton.getEdgesFromLocationAndSignal(first, output);
+
+        // Act
+        automaton.redirectEdge(edge, second, first);
+
+        // Assert
+        assertEquals(1, outputsBefore.size());
+        assertTrue(automaton.getEdgesFromLocationAndSignal(first, output).isEmpty());
+        assertEquals(1, automaton.getEdgesFromLocationAndSignal(second, output).size());
+        assertEquals(1, automaton.getEdgesToLocation(first).size());
+        assertTrue(automaton.getEdgesToLocation(second).isEmpty());
+    }
+
+    @Test
+    public void testLUBoundsAreComputedAgainWhenAnInvariantChanges() {
+        // Arrange
+        Clock x = new Clock("x", "automaton");
+        Location location = Location.create("Location", new ClockGuard(x, 5, Relation.LESS_EQUAL), true, false, false, false);
+        List<Clock> clocks = new ArrayList<>();
+        clocks.add(x);
+        Automaton automaton = new Automaton("automaton", Collections.singletonList(location), new ArrayList<>(), clocks, new ArrayList<>(), false);
+        LUBounds before = automaton.getLUBounds(location);
+
+        // Act
+        automaton.setInvariant(location, new ClockGuard(x, 8, Relation.LESS_EQUAL));
+
+        // Assert
+        assertEquals(5, before.getUpper(x));
+        assertEquals(8, automaton.getLUBounds(location).getUpper(x));
+    }
+
+    @Test
+    public void testComputedGuardIsConvertedWhenSessionIsDone() {
+        // Arrange
+        Clock x = new Clock("x", "automaton");
+        List<Clock> clocks = new ArrayList<>();
+        clocks.add(x);
+        Location location = Location.create("Location", new TrueGuard(), true, false, false, false);
+        Edge edge = new Edge(location, location, new Channel("input"), true, new TrueGuard(), new ArrayList<>());
+
+        // Act
+        CDD.init(CDD.maxSize, CDD.cs, CDD.stackSize);
+        CDD.addClocks(clocks);
+        edge.setGuard(new CDD(new ClockGuard(x, 5, Relation.LESS_EQUAL)), clocks);
+        CDD.done();
+
+        // Assert
+        assertEquals(5, edge.getMaxConstant(x));
+    }
+
+    @Test
+    public void testLUBoundsArePropagatedToSourcesUntilTheClockIsReset() {
+        // Arrange
+        Clock x = new Clock("x", "automaton");
+        Clock y = new Clock("y", "automaton");
+        Channel channel = new Channel("channel");
+        Location l0 = Location.create("L0", new ClockGuard(x, 5, Relation.LESS_EQUAL), true, false, false, false);
+        Location l1 = Location.create("L1", new TrueGuard(), false, false, false, false);
+        Location l2 = Location.create("L2", new TrueGuard(), false, false, false, false);
+        List<Edge> edges = new ArrayList<>();
+        List<Update> resetY = new ArrayList<>();
+        resetY.add(new ClockUpdate(y, 0));
+        edges.add(new Edge(l0, l1, channel, false, new TrueGuard(), resetY));
+        edges.add(new Edge(l1, l2, channel, false, new ClockGuard(y, 10, Relation.GREATER_THAN), new ArrayList<>()));
+        List<Location> locations = new ArrayList<>();
+        locations.add(l0);
+        locations.add(l1);
+        locations.add(l2);
+        List<Clock> clocks = new ArrayList<>();
+        clocks.add(x);
+        clocks.add(y);
+        Automaton automaton = new Automaton("automaton", locations, edges, clocks, new ArrayList<>(), false);
+
+        // Act
+        LUBounds bounds0 = automaton.getLUBounds(l0);
+        LUBounds bounds1 = automaton.getLUBounds(l1);
+        LUBounds bounds2 = automaton.getLUBounds(l2);
+
+        // Assert
+        assertEquals(0, bounds0.getLower(x));
+        assertEquals(5, bounds0.getUpper(x));
+        assertEquals(0, bounds0.getLower(y));
+        assertEquals(10, bounds1.getLower(y));
+        assertEquals(0, bounds1.getUpper(y));
+        assertEquals(0, bounds1.getUpper(x));
+        assertEquals(0, bounds2.getLower(y));
+    }
+
+    @Test
+    public void testClocksAreInactiveUntilTheyAreCompared() {
+        // Arrange
+        Clock x = new Clock("x", "automaton");
+        Clock y = new Clock("y", "automaton");
+        Channel channel = new Channel("channel");
+        Location l0 = Location.create("L0", new TrueGuard(), true, false, false, false);
+        Location l1 = Location.create("L1", new ClockGuard(x, 3, Relation.LESS_EQUAL), false, false, false, false);
+        List<Update> resetX = new ArrayList<>();
+        resetX.add(new ClockUpdate(x, 0));
+        List<Edge> edges = new ArrayList<>();
+        edges.add(new Edge(l0, l1, channel, false, new ClockGuard(y, 2, Relation.GREATER_EQUAL), resetX));
+        edges.add(new Edge(l1, l0, channel, false, new TrueGuard(), new ArrayList<>()));
+        List<Location> locations = new ArrayList<>();
+        locations.add(l0);
+        locations.add(l1);
+        List<Clock> clocks = new ArrayList<>();
+        clocks.add(x);
+        clocks.add(y);
+        Automaton automaton = new Automaton("automaton", locations, edges, clocks, new ArrayList<>(), false);
+
+        // Act
+        Set<Clock> activeClocks0 = automaton.getActiveClocks(l0);
+        Set<Clock> activeClocks1 = automaton.getActiveClocks(l1);
+
+        // Assert
+        assertEquals(Collections.singleton(y), activeClocks0);
+        assertEquals(new HashSet<>(clocks), activeClocks1);
+    }
 }
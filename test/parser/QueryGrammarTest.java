@@ -8,6 +8,8 @@ import org.junit.Test;
 import java.util.List;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 
 public class QueryGrammarTest {
 
@@ -94,4 +96,31 @@ public class QueryGrammarTest {
         assertEquals("C", getComponentCtx.saveSystem().expression().system().VARIABLE().getText());
         assertEquals("D", getComponentCtx.saveSystem().VARIABLE().getText());
     }
+
+    @Test(expected = AssertionError.class)
+    public void testLuBoundsIsNotAnExtrapolation(){
+        // Refinement only extrapolates with max bounds, also when they are local to the locations
+        QueryGrammarParser parser = createParserNoError(getTokensFromText("refinement: A <= B lu-bounds"));
+        parser.queries();
+    }
+
+    @Test
+    public void testParsingRefinementWithExtrapolation(){
+        QueryGrammarParser parser = createParserNoError(getTokensFromText("refinement: A <= B local-max-bounds"));
+
+        QueryGrammarParser.RefinementContext ctx = parser.queries().query(0).refinement();
+        assertEquals("B", ctx.expression(1).system().VARIABLE().getText());
+        assertEquals("local-max-bounds", ctx.EXTRAPOLATION().getText());
+        assertNull(ctx.LAZY_PRECONDITIONS());
+    }
+
+    @Test
+    public void testParsingRefinementWithLazyPreconditions(){
+        QueryGrammarParser parser = createParserNoError(getTokensFromText("refinement: A <= B max-bounds lazy-preconditions"));
+
+        QueryGrammarParser.RefinementContext ctx = parser.queries().query(0).refinement();
+        assertEquals("B", ctx.expression(1).system().VARIABLE().getText());
+        assertEquals("max-bounds", ctx.EXTRAPOLATION().getText());
+        assertNotNull(ctx.LAZY_PRECONDITIONS());
+    }
 }